@@ -0,0 +1,90 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.delegate.controller.DelegateCalculatorControllerV2;
+import com.example.micrometer.tracing.reactor.delegate.service.BulkSquareCalculator;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Squares of 100 000 values : boxed Flux&lt;Double&gt; (DelegateCalculatorControllerV2.getSquares, one signal per value)
+ * vs binary chunks computed on the parallel scheduler (BulkSquareCalculator, one signal per chunk).
+ * <br/>
+ * Request body is simulated by 16 KiB buffers, codecs and network are not included.
+ */
+@State(Scope.Benchmark)
+public class BulkSquareBenchmark {
+
+	private static final int VALUE_COUNT = 100_000;
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	@Param({"NONE", "CONTEXT_PROPAGATION_AUTO"})
+	private TracingMode mode;
+
+	private final List<Double> values = Stream.iterate(0.0, aDouble -> aDouble + 1).limit(VALUE_COUNT).toList();
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+	private final List<byte[]> body = new ArrayList<>();
+
+	private BenchmarkTracing tracing;
+	private DelegateCalculatorControllerV2 controllerV2;
+	private BulkSquareCalculator bulkSquareCalculator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(this.mode);
+		this.controllerV2 = new DelegateCalculatorControllerV2(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+		this.bulkSquareCalculator = new BulkSquareCalculator(this.tracing.getObservationRegistry());
+
+		ByteBuffer bytes = ByteBuffer.allocate(VALUE_COUNT * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		this.values.forEach(bytes::putDouble);
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			byte[] buffer = new byte[Math.min(BUFFER_SIZE, bytes.remaining())];
+			bytes.get(buffer);
+			this.body.add(buffer);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public Long boxedSquares() {
+		return this.controllerV2.getSquares(Flux.fromIterable(this.values))
+				.count()
+				.block();
+	}
+
+	@Benchmark
+	public Long bulkSquares() {
+		return this.bulkSquareCalculator.squares(Flux.fromIterable(this.body).map(this.bufferFactory::wrap), this.bufferFactory)
+				.map(squares -> {
+					int byteCount = squares.readableByteCount();
+					DataBufferUtils.release(squares);
+					return byteCount / Double.BYTES;
+				})
+				.reduce(0L, Long::sum)
+				// Same span as DelegateBulkCalculatorController
+				.name("getBulkSquares-method")
+				.tap(SampledObservation.observation(this.tracing.getObservationRegistry()))
+				.block();
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.front.service.TracingService;
+import io.micrometer.tracing.contextpropagation.reactor.ReactorBaggage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-operator cost of ThreadLocal restoration : spring.reactor.context-propagation auto (CONTEXT_PROPAGATION_AUTO)
+ * vs limited (OBSERVATION = scoped mode, ThreadLocals restored only in the TracingService.scoped(...) boundary).
+ * <br/>
+ * Pipeline : observed sequence with baggage, a chain of map operators and a single boundary reading current observation.
+ */
+@State(Scope.Benchmark)
+public class ContextPropagationBenchmark {
+
+	@Param({"OBSERVATION", "CONTEXT_PROPAGATION_AUTO"})
+	private TracingMode mode;
+
+	/**
+	 * Number of operators not reading ThreadLocals
+	 */
+	@Param({"1", "10", "50"})
+	private int operators;
+
+	private BenchmarkTracing tracing;
+	private TracingService tracingService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(this.mode);
+		this.tracingService = new TracingService(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public Long operatorChain() {
+		Mono<Long> chain = Mono.just(1L);
+		for (int i = 0; i < this.operators; i++) {
+			chain = chain.map(aLong -> aLong + 1);
+		}
+		return chain
+				.handle(this.tracingService.scoped(aLong -> this.tracingService.getCurrentObservation().highCardinalityKeyValue("operators", "chain")))
+				.name("operator-chain")
+				.tap(this.tracingService.observation())
+				.contextWrite(ReactorBaggage.append("baggage.value.from.request", "2.0"))
+				.block();
+	}
+}
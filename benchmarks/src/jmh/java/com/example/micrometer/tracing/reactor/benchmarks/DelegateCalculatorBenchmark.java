@@ -0,0 +1,52 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.delegate.controller.DelegateCalculatorControllerV1;
+import com.example.micrometer.tracing.reactor.delegate.controller.DelegateCalculatorControllerV2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Delegate getSquare pipelines (no incoming HTTP server observation : getSquare-method is a root span here).
+ */
+@State(Scope.Benchmark)
+public class DelegateCalculatorBenchmark {
+
+	@Param({"NONE", "OBSERVATION", "FUSED_HANDLER", "CONTEXT_PROPAGATION_AUTO"})
+	private TracingMode mode;
+
+	private final Double value = 2.0;
+
+	private BenchmarkTracing tracing;
+	private DelegateCalculatorControllerV1 controllerV1;
+	private DelegateCalculatorControllerV2 controllerV2;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(this.mode);
+		this.controllerV1 = new DelegateCalculatorControllerV1(this.tracing.getObservationRegistry());
+		this.controllerV2 = new DelegateCalculatorControllerV2(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v1Square() {
+		return this.controllerV1.getSquare(this.value).block();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v2Square() {
+		return this.controllerV2.getSquare(this.value).block();
+	}
+}
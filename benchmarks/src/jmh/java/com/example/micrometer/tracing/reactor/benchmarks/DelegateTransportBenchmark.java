@@ -0,0 +1,173 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.delegate.controller.DelegateCalculatorControllerV2;
+import com.example.micrometer.tracing.reactor.delegate.controller.DelegateCalculatorRSocketController;
+import com.example.micrometer.tracing.reactor.front.config.DelegateClientProperties;
+import com.example.micrometer.tracing.reactor.front.controller.FrontCalculatorControllerV3;
+import com.example.micrometer.tracing.reactor.front.service.DelegateRSocketClient;
+import com.example.micrometer.tracing.reactor.support.baggage.OutboundBaggageFilter;
+import com.example.micrometer.tracing.reactor.support.rsocket.BinaryDoubleDecoder;
+import com.example.micrometer.tracing.reactor.support.rsocket.BinaryDoubleEncoder;
+import com.example.micrometer.tracing.reactor.support.rsocket.RSocketMimeTypes;
+import com.example.micrometer.tracing.reactor.support.rsocket.RSocketObservations;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Front to delegate call over HTTP (WebClient, JSON / NDJSON) vs RSocket (DelegateRSocketClient, binary values, trace context in metadata).
+ * <br/>
+ * Both servers run delegate getSquare / getSquares V2 pipelines in this JVM on loopback : client and server observations are recorded
+ * (same ObservationRegistry), network and codecs costs are included.
+ * <br/>
+ * CONTEXT_PROPAGATION_AUTO = delegate configuration (V2 pipelines read the current observation outside tap operators).
+ */
+@State(Scope.Benchmark)
+public class DelegateTransportBenchmark {
+
+	private static final int BATCH_SIZE = 1_000;
+
+	@Param({"NONE", "CONTEXT_PROPAGATION_AUTO"})
+	private TracingMode mode;
+
+	private final Double value = 2.0;
+	private final List<Double> values = Stream.iterate(0.0, aDouble -> aDouble + 1).limit(BATCH_SIZE).toList();
+
+	private BenchmarkTracing tracing;
+	private DisposableServer httpServer;
+	private CloseableChannel rSocketServer;
+	private WebClient webClient;
+	private RSocketRequester rSocketRequester;
+	private DelegateRSocketClient rSocketClient;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(this.mode);
+		DelegateCalculatorControllerV2 controllerV2 = new DelegateCalculatorControllerV2(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+		RSocketObservations rSocketObservations = new RSocketObservations(this.tracing.getObservationRegistry());
+
+		// Same routes as DelegateCalculatorControllerV2, with HTTP server observation
+		RouterFunction<ServerResponse> routes = RouterFunctions
+				.route(RequestPredicates.GET(FrontCalculatorControllerV3.DELEGATE_ENDPOINT), request ->
+						controllerV2.getSquare(Double.valueOf(request.queryParam("value").orElseThrow()))
+								.flatMap(response -> ServerResponse.ok().bodyValue(response.getBody())))
+				.andRoute(RequestPredicates.POST(FrontCalculatorControllerV3.DELEGATE_BATCH_ENDPOINT), request ->
+						ServerResponse.ok()
+								.contentType(MediaType.APPLICATION_NDJSON)
+								.body(controllerV2.getSquares(request.bodyToFlux(Double.class)), Double.class));
+		this.httpServer = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(routes))
+						.observationRegistry(this.tracing.getObservationRegistry())
+						.build()))
+				.bindNow();
+		this.webClient = WebClient.builder()
+				.baseUrl("http://localhost:" + this.httpServer.port())
+				.observationRegistry(this.tracing.getObservationRegistry())
+				.build();
+
+		// Strategies of RSocketTracingAutoConfiguration, propagation.produce: W3C
+		RSocketStrategies strategies = RSocketStrategies.builder()
+				.encoder(new BinaryDoubleEncoder())
+				.decoder(new BinaryDoubleDecoder())
+				.metadataExtractorRegistry(registry -> Stream.concat(
+								W3CTraceContextPropagator.getInstance().fields().stream(),
+								W3CBaggagePropagator.getInstance().fields().stream())
+						.forEach(field -> registry.metadataToExtract(RSocketMimeTypes.propagationField(field), String.class, field)))
+				.build();
+		RSocketMessageHandler messageHandler = new RSocketMessageHandler();
+		messageHandler.setRSocketStrategies(strategies);
+		messageHandler.setHandlers(List.of(new DelegateCalculatorRSocketController(controllerV2, rSocketObservations)));
+		messageHandler.afterPropertiesSet();
+		this.rSocketServer = RSocketServer.create(messageHandler.responder())
+				.bindNow(TcpServerTransport.create("localhost", 0));
+		this.rSocketRequester = RSocketRequester.builder()
+				.rsocketStrategies(strategies)
+				.dataMimeType(RSocketMimeTypes.BINARY_DOUBLE)
+				.tcp("localhost", this.rSocketServer.address().getPort());
+		DelegateClientProperties delegateClientProperties = new Binder(new MapConfigurationPropertySource(Map.of(
+				"front.delegate.client.rsocket.enabled", "true",
+				"front.delegate.client.rsocket.port", String.valueOf(this.rSocketServer.address().getPort()))))
+				.bindOrCreate("front.delegate.client", DelegateClientProperties.class);
+		this.rSocketClient = new DelegateRSocketClient(this.rSocketRequester, rSocketObservations,
+				new StaticListableBeanFactory().getBeanProvider(OutboundBaggageFilter.class), delegateClientProperties);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.rSocketRequester.dispose();
+		this.rSocketServer.dispose();
+		this.httpServer.disposeNow();
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public Double httpSquare() {
+		return this.webClient.get()
+				.uri(uriBuilder -> uriBuilder
+						.path(FrontCalculatorControllerV3.DELEGATE_ENDPOINT)
+						.queryParam("value", this.value)
+						.build())
+				.retrieve()
+				.bodyToMono(Double.class)
+				.block();
+	}
+
+	@Benchmark
+	public Double rSocketSquare() {
+		return this.rSocketClient.getSquare(this.value).block();
+	}
+
+	@Benchmark
+	public List<Double> httpSquares() {
+		return this.webClient.post()
+				.uri(FrontCalculatorControllerV3.DELEGATE_BATCH_ENDPOINT)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.body(Flux.fromIterable(this.values), Double.class)
+				.retrieve()
+				.bodyToFlux(Double.class)
+				.collectList()
+				.block();
+	}
+
+	@Benchmark
+	public List<Double> rSocketSquares() {
+		return this.rSocketClient.getSquares(Flux.fromIterable(this.values))
+				.collectList()
+				.block();
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.StubWebClients;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import com.example.micrometer.tracing.reactor.front.controller.FrontCalculatorControllerV1;
+import com.example.micrometer.tracing.reactor.front.controller.FrontCalculatorControllerV2;
+import com.example.micrometer.tracing.reactor.front.controller.FrontCalculatorControllerV3;
+import com.example.micrometer.tracing.reactor.front.service.DelegateHedger;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareBatcher;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareCache;
+import com.example.micrometer.tracing.reactor.front.service.TracingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Front getSquare pipelines, with WebClient call to delegate replaced by a local stub.
+ * <ul>
+ *     <li>V1 : .name().tag().tap(Micrometer.observation(...))</li>
+ *     <li>V2 : V1 + ReactorBaggage.append via contextWrite</li>
+ *     <li>V3 : V2 through TracingService</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class FrontCalculatorBenchmark {
+
+	@Param({"NONE", "OBSERVATION", "FUSED_HANDLER", "CONTEXT_PROPAGATION_AUTO"})
+	private TracingMode mode;
+
+	/**
+	 * front.delegate.cache.enabled (true = stub is called once, then every request is a cache hit)
+	 */
+	@Param({"false"})
+	private boolean delegateCache;
+
+	private final Double value = 2.0;
+
+	private BenchmarkTracing tracing;
+	private FrontCalculatorControllerV1 controllerV1;
+	private FrontCalculatorControllerV2 controllerV2;
+	private FrontCalculatorControllerV3 controllerV3;
+	private DelegateSquareBatcher delegateSquareBatcher;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(this.mode);
+		WebClient webClientToDelegate = StubWebClients.delegate(this.tracing.getObservationRegistry());
+
+		// TracingService is a singleton in reactive-front, its constructor registers the baggage ThreadLocalAccessor
+		TracingService tracingService = new TracingService(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+		DelegateProperties delegateProperties = new DelegateProperties(
+				new DelegateProperties.Cache(this.delegateCache, 10_000, Duration.ofMinutes(10)),
+				new DelegateProperties.Batch(false, 100, Duration.ofMillis(5), 16, 10_000),
+				new DelegateProperties.Hedge(false, Duration.ofMillis(50), 0, Duration.ofMillis(5)));
+		DelegateSquareCache delegateSquareCache = new DelegateSquareCache(delegateProperties, tracingService, this.tracing.getMeterRegistry());
+		this.delegateSquareBatcher = new DelegateSquareBatcher(webClientToDelegate, delegateProperties, tracingService, this.tracing.getMeterRegistry(), null);
+		DelegateHedger delegateHedger = new DelegateHedger(this.tracing.getObservationRegistry(), delegateProperties, this.tracing.getMeterRegistry());
+
+		this.controllerV1 = new FrontCalculatorControllerV1(this.tracing.getObservationRegistry(), webClientToDelegate, delegateSquareCache);
+		this.controllerV2 = new FrontCalculatorControllerV2(this.tracing.getObservationRegistry(), webClientToDelegate, this.tracing.getOtelTracer(), delegateSquareCache, tracingService);
+		this.controllerV3 = new FrontCalculatorControllerV3(webClientToDelegate, tracingService, delegateSquareCache, this.delegateSquareBatcher, delegateHedger, null);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.delegateSquareBatcher.destroy();
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v1Square() {
+		return this.controllerV1.getSquare(this.value).block();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v2Square() {
+		return this.controllerV2.getSquare(this.value).block();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v3Square() {
+		return this.controllerV3.getSquare(this.value).block();
+	}
+
+	@Benchmark
+	public ResponseEntity<Double> v3SquareOfTwo() {
+		return this.controllerV3.getSquareOf2().block();
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.support.propagation.FastPathTextMapPropagator;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.propagation.BaggageTextMapPropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.actuate.autoconfigure.tracing.BootTextMapPropagators;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties.Propagation.PropagationType;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Spring Boot CompositeTextMapPropagator vs FastPathTextMapPropagator, with propagation of reactive-front / reactive-delegate
+ * (consume: W3C, B3, B3_MULTI, produce: W3C, baggage remote field "user").
+ * <br/>
+ * Extraction from request headers of a browser-like request (about 15 headers) carrying a trace context in a given format,
+ * injection of a sampled span context in the headers of a request to delegate.
+ */
+@State(Scope.Thread)
+public class PropagatorBenchmark {
+
+	private static final List<String> REMOTE_FIELDS = List.of("user");
+	private static final TextMapGetter<HttpHeaders> GETTER = new TextMapGetter<>() {
+
+		@Override
+		public Iterable<String> keys(HttpHeaders carrier) {
+			return carrier.keySet();
+		}
+
+		@Override
+		public String get(HttpHeaders carrier, String key) {
+			return carrier == null ? null : carrier.getFirst(key);
+		}
+	};
+	private static final TextMapSetter<HttpHeaders> SETTER = HttpHeaders::set;
+
+	/**
+	 * Trace context format of extracted request (NONE = no trace context, every extractor misses)
+	 */
+	@Param({"W3C", "B3", "B3_MULTI", "NONE"})
+	private String format;
+
+	private TextMapPropagator bootPropagator;
+	private TextMapPropagator fastPathPropagator;
+	private HttpHeaders requestHeaders;
+	private Context spanContext;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		TracingProperties.Propagation propagation = new TracingProperties.Propagation();
+		propagation.setConsume(List.of(PropagationType.W3C, PropagationType.B3, PropagationType.B3_MULTI));
+		propagation.setProduce(List.of(PropagationType.W3C));
+		OtelCurrentTraceContext otelCurrentTraceContext = new OtelCurrentTraceContext();
+		BaggageTextMapPropagator baggagePropagator = new BaggageTextMapPropagator(REMOTE_FIELDS,
+				new OtelBaggageManager(otelCurrentTraceContext, REMOTE_FIELDS, List.of()));
+
+		this.bootPropagator = BootTextMapPropagators.create(propagation, baggagePropagator);
+		this.fastPathPropagator = FastPathTextMapPropagator.create(propagation.getConsume(), propagation.getProduce(), baggagePropagator);
+		this.requestHeaders = requestHeaders(this.format);
+		this.spanContext = Context.root().with(Span.wrap(SpanContext.create(
+				"0af7651916cd43dd8448eb211c80319c", "b7ad6b7169203331", TraceFlags.getSampled(), TraceState.getDefault())));
+	}
+
+	@Benchmark
+	public Context extractBoot() {
+		return this.bootPropagator.extract(Context.root(), this.requestHeaders, GETTER);
+	}
+
+	@Benchmark
+	public Context extractFastPath() {
+		return this.fastPathPropagator.extract(Context.root(), this.requestHeaders, GETTER);
+	}
+
+	@Benchmark
+	public HttpHeaders injectBoot() {
+		HttpHeaders headers = new HttpHeaders();
+		this.bootPropagator.inject(this.spanContext, headers, SETTER);
+		return headers;
+	}
+
+	@Benchmark
+	public HttpHeaders injectFastPath() {
+		HttpHeaders headers = new HttpHeaders();
+		this.fastPathPropagator.inject(this.spanContext, headers, SETTER);
+		return headers;
+	}
+
+	private static HttpHeaders requestHeaders(String format) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.HOST, "localhost:11011");
+		headers.set(HttpHeaders.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64; rv:131.0) Gecko/20100101 Firefox/131.0");
+		headers.set(HttpHeaders.ACCEPT, "application/json, text/plain, */*");
+		headers.set(HttpHeaders.ACCEPT_LANGUAGE, "en-US,en;q=0.5");
+		headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+		headers.set(HttpHeaders.CONNECTION, "keep-alive");
+		headers.set(HttpHeaders.REFERER, "http://localhost:11011/");
+		headers.set(HttpHeaders.COOKIE, "SESSION=ZjM2YmU0NDMtMjI2Mi00YjA2LWE1MjctNDM2ZmJlZDM4ZDk5");
+		headers.set(HttpHeaders.CACHE_CONTROL, "no-cache");
+		headers.set(HttpHeaders.PRAGMA, "no-cache");
+		headers.set("Sec-Fetch-Dest", "empty");
+		headers.set("Sec-Fetch-Mode", "cors");
+		headers.set("Sec-Fetch-Site", "same-origin");
+		headers.set("baggage", "user=alice");
+		switch (format) {
+			case "W3C" -> headers.set("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+			case "B3" -> headers.set("b3", "0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-1");
+			case "B3_MULTI" -> {
+				headers.set("X-B3-TraceId", "0af7651916cd43dd8448eb211c80319c");
+				headers.set("X-B3-SpanId", "b7ad6b7169203331");
+				headers.set("X-B3-Sampled", "1");
+			}
+			default -> {
+			}
+		}
+		return headers;
+	}
+}
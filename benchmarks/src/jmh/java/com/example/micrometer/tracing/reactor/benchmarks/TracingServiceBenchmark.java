@@ -0,0 +1,71 @@
+package com.example.micrometer.tracing.reactor.benchmarks;
+
+import com.example.micrometer.tracing.reactor.benchmarks.support.BenchmarkTracing;
+import com.example.micrometer.tracing.reactor.benchmarks.support.TracingMode;
+import com.example.micrometer.tracing.reactor.front.observation.CalculatorKeyNames;
+import com.example.micrometer.tracing.reactor.front.service.TracingService;
+import io.micrometer.observation.Observation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+
+/**
+ * TracingService attributes API : Map based vs typed methods, with and without current observation.
+ */
+@State(Scope.Thread)
+public class TracingServiceBenchmark {
+
+	/**
+	 * true = an observation is in scope, false = no current observation (Observation.NOOP path)
+	 */
+	@Param({"true", "false"})
+	private boolean currentObservation;
+
+	private double value = 2.0;
+	private double squareValue = 4.0;
+
+	private BenchmarkTracing tracing;
+	private TracingService tracingService;
+	private Observation observation;
+	private Observation.Scope scope;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.tracing = new BenchmarkTracing(TracingMode.OBSERVATION);
+		this.tracingService = new TracingService(this.tracing.getObservationRegistry(), this.tracing.getOtelTracer());
+		if (this.currentObservation) {
+			this.observation = Observation.start("computeSquare-method", this.tracing.getObservationRegistry());
+			this.scope = this.observation.openScope();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (this.currentObservation) {
+			this.scope.close();
+			this.observation.stop();
+		}
+		this.tracing.close();
+	}
+
+	@Benchmark
+	public void addAttributesMap() {
+		this.tracingService.addAttributes(
+				Map.of(
+						"value.sent.to.delegate", this.value,
+						"value.received.from.delegate", this.squareValue));
+	}
+
+	@Benchmark
+	public void addAttributesTyped() {
+		this.tracingService.addAttributes(
+				CalculatorKeyNames.VALUE_SENT_TO_DELEGATE, this.value,
+				CalculatorKeyNames.VALUE_RECEIVED_FROM_DELEGATE, this.squareValue);
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.micrometer.tracing.reactor.benchmarks.support;
+
+import com.example.micrometer.tracing.reactor.support.observation.FusedTracingMeterObservationHandler;
+import com.example.micrometer.tracing.reactor.support.observation.UnfusedMeterObservationHandler;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.handler.TracingAwareMeterObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.micrometer.tracing.otel.bridge.Slf4JBaggageEventListener;
+import io.micrometer.tracing.otel.bridge.Slf4JEventListener;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import lombok.Getter;
+import reactor.core.publisher.Hooks;
+import reactor.netty.observability.ReactorNettyTracingObservationHandler;
+
+import java.util.List;
+
+/**
+ * Tracing setup equivalent to the one built by Spring Boot for reactive-front / reactive-delegate
+ * (micrometer-tracing-bridge-otel + MyObservationRegistryCustomizer), without Spring context and without export.
+ */
+@Getter
+public class BenchmarkTracing implements AutoCloseable {
+
+	private final TracingMode mode;
+	private final ObservationRegistry observationRegistry;
+	private final OtelTracer otelTracer;
+	private final SimpleMeterRegistry meterRegistry;
+	private final OpenTelemetrySdk openTelemetrySdk;
+
+	public BenchmarkTracing(TracingMode mode) {
+		this.mode = mode;
+		this.meterRegistry = new SimpleMeterRegistry();
+
+		// sampling.probability: 1.0, spans are ended and converted but dropped by a no-op exporter
+		SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+				.setSampler(Sampler.alwaysOn())
+				.addSpanProcessor(SimpleSpanProcessor.create(SpanExporter.composite()))
+				.build();
+		// propagation.produce: W3C
+		ContextPropagators contextPropagators = ContextPropagators.create(TextMapPropagator.composite(
+				W3CTraceContextPropagator.getInstance(),
+				W3CBaggagePropagator.getInstance()));
+		this.openTelemetrySdk = OpenTelemetrySdk.builder()
+				.setTracerProvider(tracerProvider)
+				.setPropagators(contextPropagators)
+				.build();
+
+		io.opentelemetry.api.trace.Tracer tracer = this.openTelemetrySdk.getTracer("benchmarks");
+		OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+		// baggage.correlation.enabled: true
+		Slf4JEventListener slf4JEventListener = new Slf4JEventListener();
+		Slf4JBaggageEventListener slf4JBaggageEventListener = new Slf4JBaggageEventListener(List.of());
+		this.otelTracer = new OtelTracer(tracer, currentTraceContext,
+				event -> {
+					slf4JEventListener.onEvent(event);
+					slf4JBaggageEventListener.onEvent(event);
+				},
+				new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+
+		if (mode == TracingMode.NONE) {
+			this.observationRegistry = ObservationRegistry.NOOP;
+		} else {
+			this.observationRegistry = ObservationRegistry.create();
+			OtelPropagator propagator = new OtelPropagator(contextPropagators, tracer);
+			if (mode == TracingMode.FUSED_HANDLER) {
+				// tracing.fused-handler.enabled
+				FusedTracingMeterObservationHandler fusedHandler = new FusedTracingMeterObservationHandler(this.otelTracer, this.meterRegistry, true);
+				this.observationRegistry.observationConfig()
+						.observationHandler(new UnfusedMeterObservationHandler(new DefaultMeterObservationHandler(this.meterRegistry), this.otelTracer, fusedHandler))
+						.observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+								new PropagatingSenderTracingObservationHandler<>(this.otelTracer, propagator),
+								new PropagatingReceiverTracingObservationHandler<>(this.otelTracer, propagator),
+								fusedHandler,
+								new DefaultTracingObservationHandler(this.otelTracer)));
+			} else {
+				// Spring Boot default handlers
+				this.observationRegistry.observationConfig()
+						.observationHandler(new TracingAwareMeterObservationHandler<>(new DefaultMeterObservationHandler(this.meterRegistry), this.otelTracer))
+						.observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+								new PropagatingSenderTracingObservationHandler<>(this.otelTracer, propagator),
+								new PropagatingReceiverTracingObservationHandler<>(this.otelTracer, propagator),
+								new DefaultTracingObservationHandler(this.otelTracer)));
+			}
+			this.observationRegistry.observationConfig()
+					// MyObservationRegistryCustomizer
+					.observationHandler(new ReactorNettyTracingObservationHandler(this.otelTracer));
+		}
+
+		if (mode == TracingMode.CONTEXT_PROPAGATION_AUTO) {
+			Hooks.enableAutomaticContextPropagation();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.mode == TracingMode.CONTEXT_PROPAGATION_AUTO) {
+			Hooks.disableAutomaticContextPropagation();
+		}
+		this.openTelemetrySdk.close();
+		this.meterRegistry.close();
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.micrometer.tracing.reactor.benchmarks.support;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient answering locally like ReactiveDelegateApplication : no network, but codecs and client observation are kept.
+ */
+public final class StubWebClients {
+
+	private StubWebClients() {
+	}
+
+	public static WebClient delegate(ObservationRegistry observationRegistry) {
+		return WebClient.builder()
+				.baseUrl("http://localhost:11012")
+				.observationRegistry(observationRegistry)
+				.exchangeFunction(request -> {
+					String value = UriComponentsBuilder.fromUri(request.url())
+							.build()
+							.getQueryParams()
+							.getFirst("value");
+					double parsedValue = Double.parseDouble(value);
+					return Mono.just(ClientResponse.create(HttpStatus.OK)
+							.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+							.body(String.valueOf(parsedValue * parsedValue))
+							.build());
+				})
+				.build();
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.micrometer.tracing.reactor.benchmarks.support;
+
+/**
+ * Tracing setups compared by the benchmarks.
+ * <br/>
+ * Baggage (ReactorBaggage.append via contextWrite) is not a mode : it is part of the V2/V3 pipelines
+ * and measured by comparing them with V1 under the same mode.
+ */
+public enum TracingMode {
+
+	/**
+	 * ObservationRegistry.NOOP : .name().tag().tap(Micrometer.observation(...)) create no observation
+	 */
+	NONE,
+
+	/**
+	 * Observation handlers registered as in the applications (tracing + meters)
+	 * <br/>
+	 * = spring.reactor.context-propagation: limited (scoped mode) : ThreadLocals are restored by handle and tap operators only
+	 */
+	OBSERVATION,
+
+	/**
+	 * Same as OBSERVATION with FusedTracingMeterObservationHandler for local observations (tracing.fused-handler.enabled)
+	 */
+	FUSED_HANDLER,
+
+	/**
+	 * Same as OBSERVATION + spring.reactor.context-propagation: auto (Hooks.enableAutomaticContextPropagation())
+	 */
+	CONTEXT_PROPAGATION_AUTO
+}
@@ -0,0 +1,16 @@
+package org.springframework.boot.actuate.autoconfigure.tracing;
+
+import io.opentelemetry.context.propagation.TextMapPropagator;
+
+/**
+ * Access to Spring Boot CompositeTextMapPropagator (package-private), baseline of PropagatorBenchmark
+ */
+public final class BootTextMapPropagators {
+
+	private BootTextMapPropagators() {
+	}
+
+	public static TextMapPropagator create(TracingProperties.Propagation propagation, TextMapPropagator baggagePropagator) {
+		return CompositeTextMapPropagator.create(propagation, baggagePropagator);
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import com.example.micrometer.tracing.reactor.delegate.ReactiveDelegateApplication;
+import com.example.micrometer.tracing.reactor.front.ReactiveFrontApplication;
+import com.example.micrometer.tracing.reactor.support.export.InMemorySpanExporter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * reactive-delegate and reactive-front started in this JVM on random ports, front requesting delegate.
+ * <br/>
+ * Spans are kept in memory (tracing.export.in-memory) instead of being exported over OTLP, request logs are disabled.
+ * <br/>
+ * Both applications share the JVM : ThreadLocal accessors registered in ContextRegistry by front apply to delegate threads too.
+ */
+public class InProcessApplications implements AutoCloseable {
+
+	private static final String DROPPED_SPANS_METER = "tracing.export.spans.dropped";
+	private static final String DELEGATE_BAGGAGE_FIELDS = "baggage.value.from.request, value, user, debug";
+
+	private final ConfigurableApplicationContext delegate;
+	private final ConfigurableApplicationContext front;
+
+	public InProcessApplications(TracingConfiguration tracingConfiguration) throws IOException {
+		this.delegate = SpringApplication.run(ReactiveDelegateApplication.class, args(tracingConfiguration, "reactive-delegate",
+				// RSocket server is not requested by front (front.delegate.client.rsocket.enabled=false)
+				"--spring.rsocket.server.port=0"));
+		try {
+			String delegateUrl = "http://localhost:" + port(this.delegate);
+			// Lists are replaced as a whole : RSocket destination is not needed
+			this.front = SpringApplication.run(ReactiveFrontApplication.class, args(tracingConfiguration, "reactive-front",
+					"--front.delegate.client.base-urls=" + delegateUrl,
+					"--tracing.baggage-propagation.destinations[0].name=delegate",
+					"--tracing.baggage-propagation.destinations[0].url-prefix=" + delegateUrl,
+					"--tracing.baggage-propagation.destinations[0].allowed-fields=" + DELEGATE_BAGGAGE_FIELDS));
+		} catch (RuntimeException e) {
+			this.delegate.close();
+			throw e;
+		}
+	}
+
+	public int getFrontPort() {
+		return port(this.front);
+	}
+
+	/**
+	 * Spans ended so far are exported (batch span processors are flushed)
+	 *
+	 * @return spans exported since start, by both applications
+	 */
+	public long flushExportedSpans() {
+		return applications()
+				.mapToLong(application -> {
+					application.getBeanProvider(BatchSpanProcessor.class)
+							.forEach(batchSpanProcessor -> batchSpanProcessor.forceFlush().join(10, TimeUnit.SECONDS));
+					return application.getBeanProvider(InMemorySpanExporter.class).stream()
+							.mapToLong(InMemorySpanExporter::getExportedSpans)
+							.sum();
+				})
+				.sum();
+	}
+
+	/**
+	 * @return spans dropped since start by both applications (span export queue full)
+	 */
+	public long getDroppedSpans() {
+		return applications()
+				.flatMap(application -> application.getBean(MeterRegistry.class).find(DROPPED_SPANS_METER).meters().stream())
+				.flatMap(meter -> StreamSupport.stream(meter.measure().spliterator(), false))
+				.mapToLong(measurement -> (long) measurement.getValue())
+				.sum();
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.front.close();
+		} finally {
+			this.delegate.close();
+		}
+	}
+
+	private Stream<ConfigurableApplicationContext> applications() {
+		return Stream.of(this.front, this.delegate);
+	}
+
+	/**
+	 * application.yml of the module : both applications are on the classpath, with a root application.yml each
+	 */
+	private static String[] args(TracingConfiguration tracingConfiguration, String module, String... moduleArgs) throws IOException {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.config.location=" + configLocation(module),
+				"--server.port=0",
+				// Request logs would dominate response time
+				"--logging.level.root=warn",
+				"--tracing.debug-logging.sample-rate=0",
+				"--management.otlp.tracing.export.enabled=false",
+				"--tracing.export.in-memory.enabled=true",
+				// Exported spans are only counted
+				"--tracing.export.in-memory.max-spans=1000"));
+		Collections.addAll(args, moduleArgs);
+		args.addAll(tracingConfiguration.getArgs());
+		return args.toArray(String[]::new);
+	}
+
+	private static String configLocation(String module) throws IOException {
+		for (URL url : Collections.list(InProcessApplications.class.getClassLoader().getResources("application.yml"))) {
+			if (url.toString().contains("/" + module + "/")) {
+				return url.toString();
+			}
+		}
+		throw new IllegalStateException("No application.yml of " + module + " on the classpath");
+	}
+
+	private static int port(ConfigurableApplicationContext application) {
+		return ((WebServerApplicationContext) application).getWebServer().getPort();
+	}
+}
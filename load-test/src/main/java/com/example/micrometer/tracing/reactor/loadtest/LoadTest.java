@@ -0,0 +1,163 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Open model load test of front endpoints (V1, V2, V3 GET /vN/calculator/square) for each tracing configuration :
+ * reactive-front and reactive-delegate are started in this JVM (InProcessApplications), loaded at a constant arrival rate (OpenModelLoad).
+ * <br/>
+ * Results per configuration and endpoint : throughput, latency percentiles (HdrHistogram, from intended send time), errors and their p99 latency,
+ * CPU and allocation rate of the JVM (load generator included), spans exported per second and dropped spans.
+ * <br/>
+ * System properties : load.rate (requests/s), load.warmup, load.duration, load.configurations, load.endpoints,
+ * load.max-p99 (run fails above), load.report-directory (report.md and a .hgrm percentile distribution per run).
+ */
+public class LoadTest {
+
+	private static final double NANOS_PER_MICRO = 1_000.0;
+
+	private final int rate = Integer.getInteger("load.rate", 200);
+	private final Duration warmup = Duration.parse("PT" + System.getProperty("load.warmup", "10s"));
+	private final Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+	private final List<TracingConfiguration> configurations = Arrays.stream(System.getProperty("load.configurations", "OFF,NEVER_SAMPLE,DEFAULT,DEFAULT_DROP_UNSAMPLED,ALWAYS_SAMPLE").split(","))
+			.map(String::trim)
+			.map(TracingConfiguration::valueOf)
+			.toList();
+	private final List<String> endpoints = Arrays.stream(System.getProperty("load.endpoints", "V1,V2,V3").split(","))
+			.map(String::trim)
+			.toList();
+	private final Duration maxP99 = System.getProperty("load.max-p99") == null ? null : Duration.parse("PT" + System.getProperty("load.max-p99"));
+	private final Path reportDirectory = Path.of(System.getProperty("load.report-directory", "build/reports/load-test"));
+
+	private final com.sun.management.OperatingSystemMXBean operatingSystem =
+			(com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+	private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args) throws Exception {
+		LoadTest loadTest = new LoadTest();
+		List<Result> results = new ArrayList<>();
+		for (TracingConfiguration configuration : loadTest.configurations) {
+			results.addAll(loadTest.run(configuration));
+		}
+
+		String report = loadTest.report(results);
+		System.out.println(report);
+		Files.createDirectories(loadTest.reportDirectory);
+		Files.writeString(loadTest.reportDirectory.resolve("report.md"), report);
+
+		List<Result> regressions = results.stream()
+				.filter(result -> loadTest.maxP99 != null && result.percentileNanos(99) > loadTest.maxP99.toNanos())
+				.toList();
+		if (!regressions.isEmpty()) {
+			regressions.forEach(result -> System.err.printf("p99 of %s %s above %s%n", result.configuration(), result.endpoint(), loadTest.maxP99));
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+	private List<Result> run(TracingConfiguration configuration) throws IOException {
+		System.out.printf("Tracing %s : starting front and delegate%n", configuration);
+		List<Result> results = new ArrayList<>();
+		try (InProcessApplications applications = new InProcessApplications(configuration);
+			 OpenModelLoad load = new OpenModelLoad(applications.getFrontPort())) {
+			for (String endpoint : this.endpoints) {
+				String path = "/" + endpoint.toLowerCase(Locale.ROOT) + "/calculator/square?value=2";
+				System.out.printf("Tracing %s, %s : warmup %ss at %d requests/s%n", configuration, path, this.warmup.toSeconds(), this.rate);
+				load.run(path, this.rate, this.warmup);
+
+				long exportedSpansBefore = applications.flushExportedSpans();
+				long droppedSpansBefore = applications.getDroppedSpans();
+				long cpuNanosBefore = this.operatingSystem.getProcessCpuTime();
+				long allocatedBytesBefore = allocatedBytes();
+				long startNanos = System.nanoTime();
+
+				System.out.printf("Tracing %s, %s : %ss at %d requests/s%n", configuration, path, this.duration.toSeconds(), this.rate);
+				OpenModelLoad.Result loadResult = load.run(path, this.rate, this.duration);
+
+				double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+				Result result = new Result(configuration, endpoint, loadResult,
+						(this.operatingSystem.getProcessCpuTime() - cpuNanosBefore) / 1e9 / elapsedSeconds / this.operatingSystem.getAvailableProcessors(),
+						(allocatedBytes() - allocatedBytesBefore) / elapsedSeconds,
+						(applications.flushExportedSpans() - exportedSpansBefore) / elapsedSeconds,
+						applications.getDroppedSpans() - droppedSpansBefore);
+				results.add(result);
+				writePercentileDistribution(result);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @return bytes allocated by live threads (applications and load generator thread pools live during a run)
+	 */
+	private long allocatedBytes() {
+		return Arrays.stream(this.threads.getThreadAllocatedBytes(this.threads.getAllThreadIds()))
+				// -1 = thread terminated meanwhile
+				.filter(bytes -> bytes > 0)
+				.sum();
+	}
+
+	private void writePercentileDistribution(Result result) throws IOException {
+		Files.createDirectories(this.reportDirectory);
+		Path file = this.reportDirectory.resolve(result.configuration() + "-" + result.endpoint() + ".hgrm");
+		try (PrintStream printStream = new PrintStream(Files.newOutputStream(file))) {
+			// Values in microseconds
+			result.load().latencies().outputPercentileDistribution(printStream, NANOS_PER_MICRO);
+		}
+	}
+
+	private String report(List<Result> results) {
+		StringBuilder report = new StringBuilder()
+				.append("Rate = ").append(this.rate).append(" requests/s, warmup = ").append(this.warmup.toSeconds())
+				.append("s, duration = ").append(this.duration.toSeconds()).append("s, ")
+				.append(this.operatingSystem.getAvailableProcessors()).append(" CPU\n\n")
+				.append("| Tracing                   | Endpoint | Requests/s | p50 (us) | p90 (us) | p99 (us) | p99.9 (us) | Max (us) | Errors | Error p99 (us) | CPU (%) | Allocation (MB/s) | Allocated/request (KB) | Spans exported/s | Spans dropped |\n")
+				.append("|---------------------------|----------|------------|----------|----------|----------|------------|----------|--------|----------------|---------|-------------------|------------------------|------------------|---------------|\n");
+		for (Result result : results) {
+			Histogram latencies = result.load().latencies();
+			report.append(String.format(Locale.ROOT, "| %-25s | %-8s | %10.0f | %8.0f | %8.0f | %8.0f | %10.0f | %8.0f | %6d | %14.0f | %7.1f | %17.1f | %22.1f | %16.1f | %13d |%n",
+					result.configuration(), result.endpoint(), result.load().throughput(),
+					result.percentileNanos(50) / NANOS_PER_MICRO,
+					result.percentileNanos(90) / NANOS_PER_MICRO,
+					result.percentileNanos(99) / NANOS_PER_MICRO,
+					result.percentileNanos(99.9) / NANOS_PER_MICRO,
+					latencies.getMaxValue() / NANOS_PER_MICRO,
+					result.load().errors() + result.load().lost(),
+					result.load().errorLatencies().getValueAtPercentile(99) / NANOS_PER_MICRO,
+					result.cpuRatio() * 100,
+					result.allocatedBytesPerSecond() / (1024 * 1024),
+					result.allocatedBytesPerSecond() / Math.max(1, result.load().throughput()) / 1024,
+					result.exportedSpansPerSecond(),
+					result.droppedSpans()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * @param cpuRatio                JVM CPU time / (elapsed time * processors)
+	 * @param allocatedBytesPerSecond heap allocation rate of live JVM threads
+	 */
+	private record Result(TracingConfiguration configuration,
+						  String endpoint,
+						  OpenModelLoad.Result load,
+						  double cpuRatio,
+						  double allocatedBytesPerSecond,
+						  double exportedSpansPerSecond,
+						  long droppedSpans) {
+
+		long percentileNanos(double percentile) {
+			return this.load.latencies().getValueAtPercentile(percentile);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load : requests are sent at a constant arrival rate, whatever the response time (no client waits for a response).
+ * <br/>
+ * Latency is measured from the intended send time of each request (not from the actual one) : a stalled load generator or server
+ * does not hide the queueing delay of the requests which should have been sent meanwhile (no coordinated omission).
+ * Failed requests are measured the same way in a separate histogram : fast failures (e.g. 503 of load shedding) do not lower
+ * the latencies of successful requests, slow ones (timeouts) are not hidden.
+ * <br/>
+ * Event loop and connection pool are dedicated to the load generator (not shared with the applications in this JVM).
+ */
+public class OpenModelLoad implements AutoCloseable {
+
+	private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(10);
+	// Latencies from 1 us to 1 min, 3 significant digits
+	private static final long HIGHEST_TRACKABLE_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final LoopResources loopResources = LoopResources.create("load", 1, true);
+	private final ConnectionProvider connectionProvider = ConnectionProvider.builder("load")
+			.maxConnections(1_000)
+			// Requests exceeding connections wait for a connection : latency increases, requests are not rejected
+			.pendingAcquireMaxCount(-1)
+			.pendingAcquireTimeout(RESPONSE_TIMEOUT)
+			.build();
+	private final HttpClient httpClient;
+
+	public OpenModelLoad(int port) {
+		this.httpClient = HttpClient.create(this.connectionProvider)
+				.runOn(this.loopResources)
+				.baseUrl("http://localhost:" + port)
+				.responseTimeout(RESPONSE_TIMEOUT);
+	}
+
+	/**
+	 * @param path     requested path
+	 * @param rate     requests per second
+	 * @param duration sending duration (in-flight requests are then awaited)
+	 */
+	public Result run(String path, int rate, Duration duration) {
+		Recorder recorder = new Recorder(HIGHEST_TRACKABLE_LATENCY_NANOS, 3);
+		Recorder errorRecorder = new Recorder(HIGHEST_TRACKABLE_LATENCY_NANOS, 3);
+		AtomicLong inFlight = new AtomicLong();
+
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+		long requestCount = duration.toSeconds() * rate;
+		long startNanos = System.nanoTime();
+		for (long i = 0; i < requestCount; i++) {
+			long intendedNanos = startNanos + i * intervalNanos;
+			long delayNanos;
+			while ((delayNanos = intendedNanos - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(delayNanos);
+			}
+			inFlight.incrementAndGet();
+			this.httpClient.get()
+					.uri(path)
+					// Empty body (e.g. 200 without content) : response is still counted
+					.responseSingle((response, body) -> response.status().code() == 200
+							? body.asString().defaultIfEmpty("")
+							: body.asString().defaultIfEmpty("").map(message -> {
+								throw new IllegalStateException("Unexpected response " + response.status() + " : " + message);
+							}))
+					.subscribe(
+							response -> recorder.recordValue(latencyNanos(intendedNanos)),
+							error -> {
+								errorRecorder.recordValue(latencyNanos(intendedNanos));
+								inFlight.decrementAndGet();
+							},
+							inFlight::decrementAndGet);
+		}
+		long sendingNanos = System.nanoTime() - startNanos;
+
+		long deadline = System.nanoTime() + RESPONSE_TIMEOUT.toNanos() * 2;
+		while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+		return new Result(recorder.getIntervalHistogram(), errorRecorder.getIntervalHistogram(), inFlight.get(), sendingNanos);
+	}
+
+	private static long latencyNanos(long intendedNanos) {
+		return Math.min(System.nanoTime() - intendedNanos, HIGHEST_TRACKABLE_LATENCY_NANOS);
+	}
+
+	@Override
+	public void close() {
+		this.connectionProvider.dispose();
+		this.loopResources.dispose();
+	}
+
+	/**
+	 * @param latencies      latencies of successful requests from intended send time, in nanoseconds
+	 * @param errorLatencies latencies of errors and timeouts from intended send time, in nanoseconds
+	 * @param lost           requests without response after 2 response timeouts
+	 * @param sendingNanos   actual sending duration (above requested duration if the load generator could not keep up)
+	 */
+	public record Result(Histogram latencies, Histogram errorLatencies, long lost, long sendingNanos) {
+
+		/**
+		 * @return errors and timeouts
+		 */
+		public long errors() {
+			return this.errorLatencies.getTotalCount();
+		}
+
+		public long requests() {
+			return this.latencies.getTotalCount() + errors() + this.lost;
+		}
+
+		public double throughput() {
+			return this.latencies.getTotalCount() / (this.sendingNanos / 1e9);
+		}
+	}
+}
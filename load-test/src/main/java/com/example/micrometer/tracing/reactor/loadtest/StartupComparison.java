@@ -0,0 +1,260 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup time and RSS of reactive-delegate and reactive-front for each startup mode (plain JVM, Spring AOT, AppCDS, native image),
+ * and check that traces and baggage still propagate from front to delegate in every mode.
+ * <br/>
+ * Each run starts delegate then front in new processes (same maximum heap), time to ready is measured from process start
+ * to the first successful /actuator/health response. A GET /v3/calculator/square request with a traceparent and a baggage header
+ * is then sent to front : delegate logs must contain the trace id and the baggage entry.
+ * <br/>
+ * Modes whose artifacts are missing are skipped (cdsArchive / cdsAotArchive / nativeCompile tasks of each service).
+ * <br/>
+ * System properties : java, front.* and delegate.* artifacts (set by Gradle task compareStartup), startup.runs, startup.report-directory
+ */
+public class StartupComparison {
+
+	private static final int DELEGATE_PORT = 11022;
+	private static final int FRONT_PORT = 11021;
+	private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+	private static final Duration LOG_TIMEOUT = Duration.ofSeconds(10);
+	private static final int REQUESTS_BEFORE_RSS = 100;
+	private static final String BAGGAGE_KEY = "user";
+	// Baggage is logged at debug level : check request is flagged (cf tracing.debug-logging)
+	private static final String DEBUG_BAGGAGE_ENTRY = "debug=true";
+	private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(1))
+			.build();
+	private final String java = System.getProperty("java", "java");
+	private final int runs = Integer.getInteger("startup.runs", 3);
+	private final Path reportDirectory = Path.of(System.getProperty("startup.report-directory", "build/reports/startup"));
+
+	public static void main(String[] args) throws Exception {
+		StartupComparison comparison = new StartupComparison();
+		Service delegate = Service.of("delegate");
+		Service front = Service.of("front");
+		Files.createDirectories(comparison.reportDirectory);
+
+		List<Result> results = new ArrayList<>();
+		for (StartupMode mode : StartupMode.values()) {
+			if (!mode.isAvailable(delegate) || !mode.isAvailable(front)) {
+				System.out.printf("%s : skipped, artifacts not built%n", mode);
+				continue;
+			}
+			List<Run> runs = new ArrayList<>();
+			for (int i = 0; i < comparison.runs; i++) {
+				System.out.printf("%s : run %d/%d%n", mode, i + 1, comparison.runs);
+				runs.add(comparison.run(mode, delegate, front));
+			}
+			results.add(Result.of(mode, runs));
+		}
+
+		String report = report(results, comparison.runs);
+		System.out.println(report);
+		Files.writeString(comparison.reportDirectory.resolve("report.md"), report);
+		System.exit(results.stream().allMatch(Result::propagated) ? 0 : 1);
+	}
+
+	private Run run(StartupMode mode, Service delegate, Service front) throws Exception {
+		Path delegateLog = this.reportDirectory.resolve(mode + "-delegate.log");
+		long delegateStartNanos = System.nanoTime();
+		Process delegateProcess = start(mode.command(this.java, delegate,
+				"--server.port=" + DELEGATE_PORT,
+				"--spring.rsocket.server.port=0",
+				"--management.otlp.tracing.export.enabled=false"), delegateLog);
+		try {
+			long delegateReadyNanos = awaitReady(delegateProcess, DELEGATE_PORT, delegateStartNanos);
+			String delegateUrl = "http://localhost:" + DELEGATE_PORT;
+			long frontStartNanos = System.nanoTime();
+			Process frontProcess = start(mode.command(this.java, front,
+					"--server.port=" + FRONT_PORT,
+					"--management.otlp.tracing.export.enabled=false",
+					"--front.delegate.client.base-urls=" + delegateUrl,
+					"--tracing.baggage-propagation.destinations[0].name=delegate",
+					"--tracing.baggage-propagation.destinations[0].url-prefix=" + delegateUrl,
+					"--tracing.baggage-propagation.destinations[0].allowed-fields=" + BAGGAGE_KEY + ",debug"), this.reportDirectory.resolve(mode + "-front.log"));
+			try {
+				long frontReadyNanos = awaitReady(frontProcess, FRONT_PORT, frontStartNanos);
+				long delegateRss = rssBytes(delegateProcess);
+				long frontRss = rssBytes(frontProcess);
+
+				boolean propagated = checkPropagation(mode, delegateLog);
+				for (int i = 0; i < REQUESTS_BEFORE_RSS; i++) {
+					square(null, null);
+				}
+				return new Run(delegateReadyNanos, frontReadyNanos, delegateRss, frontRss,
+						rssBytes(delegateProcess), rssBytes(frontProcess), propagated);
+			} finally {
+				stop(frontProcess);
+			}
+		} finally {
+			stop(delegateProcess);
+		}
+	}
+
+	private Process start(List<String> command, Path log) throws IOException {
+		return new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(log.toFile())
+				.start();
+	}
+
+	/**
+	 * @return nanoseconds from process start to first successful health check
+	 */
+	private long awaitReady(Process process, int port, long startNanos) throws InterruptedException {
+		while (System.nanoTime() - startNanos < READY_TIMEOUT.toNanos()) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Process " + process.info().commandLine().orElse("") + " exited with code " + process.exitValue());
+			}
+			try {
+				if (send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))).statusCode() == 200) {
+					return System.nanoTime() - startNanos;
+				}
+			} catch (IOException e) {
+				// Not started yet
+			}
+			Thread.sleep(10);
+		}
+		throw new IllegalStateException("Process not ready after " + READY_TIMEOUT);
+	}
+
+	/**
+	 * @return true if delegate logged the trace id and the baggage entry sent to front
+	 */
+	private boolean checkPropagation(StartupMode mode, Path delegateLog) throws Exception {
+		String traceId = HexFormat.of().formatHex(randomBytes(16));
+		String baggageValue = "startup-check-" + mode.name().toLowerCase(Locale.ROOT);
+		HttpResponse<String> response = square("00-" + traceId + "-" + HexFormat.of().formatHex(randomBytes(8)) + "-01",
+				BAGGAGE_KEY + "=" + baggageValue + "," + DEBUG_BAGGAGE_ENTRY);
+		if (response.statusCode() != 200) {
+			System.out.printf("%s : unexpected response %d %s%n", mode, response.statusCode(), response.body());
+			return false;
+		}
+
+		String expectedBaggage = BAGGAGE_KEY + "=" + baggageValue;
+		long deadline = System.nanoTime() + LOG_TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			// Logs of the request on delegate : correlation (trace id) and baggage
+			if (Files.readAllLines(delegateLog).stream().anyMatch(line -> line.contains(traceId) && line.contains(expectedBaggage))) {
+				return true;
+			}
+			Thread.sleep(100);
+		}
+		System.out.printf("%s : no delegate log with trace id %s and baggage %s%n", mode, traceId, expectedBaggage);
+		return false;
+	}
+
+	private HttpResponse<String> square(String traceparent, String baggage) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + FRONT_PORT + "/v3/calculator/square?value=3"));
+		if (traceparent != null) {
+			request.header("traceparent", traceparent).header("baggage", baggage);
+		}
+		return send(request);
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+		return this.httpClient.send(request.timeout(Duration.ofSeconds(5)).GET().build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static void stop(Process process) throws InterruptedException {
+		process.destroy();
+		if (!process.waitFor(30, TimeUnit.SECONDS)) {
+			process.destroyForcibly().waitFor();
+		}
+	}
+
+	/**
+	 * @return resident set size (Linux), -1 if unknown
+	 */
+	private static long rssBytes(Process process) {
+		try {
+			Matcher matcher = VM_RSS.matcher(Files.readString(Path.of("/proc", String.valueOf(process.pid()), "status")));
+			return matcher.find() ? Long.parseLong(matcher.group(1)) * 1024 : -1;
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private static byte[] randomBytes(int length) {
+		byte[] bytes = new byte[length];
+		ThreadLocalRandom.current().nextBytes(bytes);
+		return bytes;
+	}
+
+	private static String report(List<Result> results, int runs) {
+		StringBuilder report = new StringBuilder()
+				.append("Median of ").append(runs).append(" runs, RSS after startup and after ").append(REQUESTS_BEFORE_RSS).append(" requests\n\n")
+				.append("| Mode        | Delegate ready (ms) | Front ready (ms) | Delegate RSS (MB) | Front RSS (MB) | Delegate RSS loaded (MB) | Front RSS loaded (MB) | Traces and baggage propagated |\n")
+				.append("|-------------|---------------------|------------------|-------------------|----------------|--------------------------|-----------------------|-------------------------------|\n");
+		for (Result result : results) {
+			report.append(String.format(Locale.ROOT, "| %-11s | %19d | %16d | %17.0f | %14.0f | %24.0f | %21.0f | %-29s |%n",
+					result.mode(),
+					TimeUnit.NANOSECONDS.toMillis(result.median(Run::delegateReadyNanos)),
+					TimeUnit.NANOSECONDS.toMillis(result.median(Run::frontReadyNanos)),
+					result.median(Run::delegateRssBytes) / (1024.0 * 1024),
+					result.median(Run::frontRssBytes) / (1024.0 * 1024),
+					result.median(Run::delegateLoadedRssBytes) / (1024.0 * 1024),
+					result.median(Run::frontLoadedRssBytes) / (1024.0 * 1024),
+					result.propagated() ? "yes" : "NO"));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Artifacts of a service, from system properties &lt;name&gt;.jar, .extracted-jar, .cds-archive, .cds-aot-archive, .native
+	 */
+	record Service(Path jar, Path extractedJar, Path cdsArchive, Path cdsAotArchive, Path nativeExecutable) {
+
+		static Service of(String name) {
+			return new Service(path(name + ".jar"), path(name + ".extracted-jar"), path(name + ".cds-archive"),
+					path(name + ".cds-aot-archive"), path(name + ".native"));
+		}
+
+		private static Path path(String property) {
+			String path = System.getProperty(property);
+			return path == null ? null : Path.of(path);
+		}
+	}
+
+	private record Run(long delegateReadyNanos,
+					   long frontReadyNanos,
+					   long delegateRssBytes,
+					   long frontRssBytes,
+					   long delegateLoadedRssBytes,
+					   long frontLoadedRssBytes,
+					   boolean propagated) {
+	}
+
+	private record Result(StartupMode mode, List<Run> runs, boolean propagated) {
+
+		static Result of(StartupMode mode, List<Run> runs) {
+			return new Result(mode, runs, runs.stream().allMatch(Run::propagated));
+		}
+
+		long median(ToLongFunction<Run> value) {
+			long[] values = this.runs.stream().mapToLong(value).sorted().toArray();
+			return values[values.length / 2];
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Startup modes compared by StartupComparison : command line of a service for each mode.
+ */
+public enum StartupMode {
+
+	/**
+	 * java -jar bootJar
+	 */
+	JVM,
+	/**
+	 * Bean definitions generated at build time (processAot), no configuration classes parsing and conditions evaluation at startup
+	 */
+	JVM_AOT,
+	/**
+	 * Extracted bootJar with AppCDS archive (cdsArchive) : classes loaded from a memory-mapped archive
+	 */
+	JVM_CDS,
+	/**
+	 * JVM_AOT with AppCDS archive trained in AOT mode (cdsAotArchive)
+	 */
+	JVM_AOT_CDS,
+	/**
+	 * GraalVM native executable (nativeCompile)
+	 */
+	NATIVE;
+
+	private static final String MAX_HEAP = "-Xmx512m";
+	private static final String AOT_ENABLED = "-Dspring.aot.enabled=true";
+
+	boolean isAvailable(StartupComparison.Service service) {
+		Path artifact = switch (this) {
+			case JVM, JVM_AOT -> service.jar();
+			case JVM_CDS -> service.cdsArchive();
+			case JVM_AOT_CDS -> service.cdsAotArchive();
+			case NATIVE -> service.nativeExecutable();
+		};
+		return artifact != null && Files.exists(artifact);
+	}
+
+	List<String> command(String java, StartupComparison.Service service, String... args) {
+		List<String> command = new ArrayList<>(switch (this) {
+			case JVM -> List.of(java, MAX_HEAP, "-jar", service.jar().toString());
+			case JVM_AOT -> List.of(java, MAX_HEAP, AOT_ENABLED, "-jar", service.jar().toString());
+			case JVM_CDS -> List.of(java, MAX_HEAP, "-XX:SharedArchiveFile=" + service.cdsArchive(),
+					"-jar", service.extractedJar().toString());
+			case JVM_AOT_CDS -> List.of(java, MAX_HEAP, AOT_ENABLED, "-XX:SharedArchiveFile=" + service.cdsAotArchive(),
+					"-jar", service.extractedJar().toString());
+			// AOT is always enabled in native images
+			case NATIVE -> List.of(service.nativeExecutable().toString(), MAX_HEAP);
+		});
+		command.addAll(Stream.of(args).toList());
+		return command;
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.micrometer.tracing.reactor.loadtest;
+
+import java.util.List;
+
+/**
+ * Tracing configurations compared by the load test : properties given to both applications (command line arguments).
+ */
+public enum TracingConfiguration {
+
+	/**
+	 * Tracing disabled (management.tracing.enabled=false) : spans are neither propagated nor exported
+	 */
+	OFF(List.of(
+			"--management.tracing.enabled=false")),
+	/**
+	 * No trace sampled : cost of observations and non-recording spans
+	 */
+	NEVER_SAMPLE(List.of(
+			"--tracing.sampling.enabled=false",
+			"--management.tracing.sampling.probability=0")),
+	/**
+	 * application.yml : new traces rate-limited per route (tracing.sampling), unsampled traces are recorded (RECORD_ONLY)
+	 * to export their spans in error
+	 */
+	DEFAULT(List.of()),
+	/**
+	 * DEFAULT without export of spans in error of unsampled traces : unsampled traces are not recorded (non-recording spans)
+	 */
+	DEFAULT_DROP_UNSAMPLED(List.of(
+			"--tracing.sampling.always-sample-errors=false")),
+	/**
+	 * Every request sampled and exported
+	 */
+	ALWAYS_SAMPLE(List.of(
+			"--tracing.sampling.enabled=false",
+			"--management.tracing.sampling.probability=1.0")),
+	/**
+	 * Every request sampled and exported, without fused handler of local observations and propagation fast path
+	 */
+	ALWAYS_SAMPLE_UNOPTIMIZED(List.of(
+			"--tracing.sampling.enabled=false",
+			"--management.tracing.sampling.probability=1.0",
+			"--tracing.fused-handler.enabled=false",
+			"--tracing.propagation.fast-path=false"));
+
+	private final List<String> args;
+
+	TracingConfiguration(List<String> args) {
+		this.args = args;
+	}
+
+	public List<String> getArgs() {
+		return this.args;
+	}
+}
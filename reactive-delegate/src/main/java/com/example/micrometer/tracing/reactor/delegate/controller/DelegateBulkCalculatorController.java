@@ -0,0 +1,64 @@
+package com.example.micrometer.tracing.reactor.delegate.controller;
+
+import com.example.micrometer.tracing.reactor.delegate.service.BulkSquareCalculator;
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk variant of DelegateCalculatorControllerV2.getSquares for large arrays : raw doubles (8 bytes little-endian per value) in and out,
+ * computed in chunks on the parallel scheduler (cf BulkSquareCalculator).
+ * <br/>
+ * Whole request is traced by a single span, with an event per chunk of values.
+ */
+@RestController
+@RequestMapping("delegate/v2/calculator")
+@Slf4j
+public class DelegateBulkCalculatorController {
+
+	private final ObservationRegistry observationRegistry;
+	private final BulkSquareCalculator bulkSquareCalculator;
+
+	public DelegateBulkCalculatorController(ObservationRegistry observationRegistry,
+											BulkSquareCalculator bulkSquareCalculator) {
+		this.observationRegistry = observationRegistry;
+		this.bulkSquareCalculator = bulkSquareCalculator;
+	}
+
+	@PostMapping(path = "/bulk-squares",
+			consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+			produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public Flux<DataBuffer> getBulkSquares(@RequestBody Flux<DataBuffer> values, ServerHttpResponse response) {
+		return Flux.deferContextual(contextView -> {
+					log.info("Calculating bulk of values");
+					if (log.isDebugEnabled()) {
+						log.debug("Current Baggage = {}", BaggageView.lazy());
+					}
+
+					Observation observation = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, Observation.NOOP);
+					AtomicLong byteCount = new AtomicLong();
+					return bulkSquareCalculator.squares(values, response.bufferFactory())
+							.doOnNext(squares -> byteCount.addAndGet(squares.readableByteCount()))
+							.doOnComplete(() -> {
+								long squareCount = byteCount.get() / Double.BYTES;
+								observation.highCardinalityKeyValue("squares.count", String.valueOf(squareCount));
+								log.info("Respond {} results to front", squareCount);
+							});
+				})
+				.name("getBulkSquares-method")
+				.tap(SampledObservation.observation(observationRegistry));
+	}
+}
@@ -1,5 +1,6 @@
 package com.example.micrometer.tracing.reactor.delegate.controller;
 
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +9,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
 
 import java.util.Objects;
@@ -40,7 +40,7 @@ public class DelegateCalculatorControllerV1 {
 				})
 				.map(ResponseEntity::ok)
 				.name("getSquare-method")
-				.tap(Micrometer.observation(observationRegistry));
+				.tap(SampledObservation.observation(observationRegistry));
 	}
 
 	private Double computeSquare(Double value) {
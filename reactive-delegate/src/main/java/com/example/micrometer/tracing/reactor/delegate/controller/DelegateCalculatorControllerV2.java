@@ -1,16 +1,22 @@
 package com.example.micrometer.tracing.reactor.delegate.controller;
 
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
+import com.example.micrometer.tracing.reactor.support.observation.ChunkEvents;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.otel.bridge.OtelTracer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Objects;
@@ -21,6 +27,8 @@ import java.util.Optional;
 @Slf4j
 public class DelegateCalculatorControllerV2 {
 
+	public static final int CHUNK_SIZE = 1_000;
+
 	private final ObservationRegistry observationRegistry;
 	private final OtelTracer otelTracer;
 
@@ -35,7 +43,9 @@ public class DelegateCalculatorControllerV2 {
 		return Mono.fromSupplier(() -> value)
 				.doOnNext(aDouble -> {
 					log.info("Calculating value {}", aDouble);
-					log.info("Current Baggage = {}", otelTracer.getAllBaggage());
+					if (log.isDebugEnabled()) {
+						log.debug("Current Baggage = {}", BaggageView.lazy());
+					}
 				})
 				.filter(Objects::nonNull)
 				.switchIfEmpty(Mono.error(new IllegalStateException("Incorrect value")))
@@ -48,7 +58,29 @@ public class DelegateCalculatorControllerV2 {
 				})
 				.map(ResponseEntity::ok)
 				.name("getSquare-method")
-				.tap(Micrometer.observation(observationRegistry));
+				.tap(SampledObservation.observation(observationRegistry));
+	}
+
+	/**
+	 * Compute square values of a stream of values (NDJSON), results are streamed back with backpressure.
+	 * <br/>
+	 * Whole batch is traced by a single span, with an event per chunk of values.
+	 */
+	@PostMapping(path = "/squares",
+			consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Double> getSquares(@RequestBody Flux<Double> values) {
+		return Flux.defer(() -> {
+					log.info("Calculating stream of values");
+					if (log.isDebugEnabled()) {
+						log.debug("Current Baggage = {}", BaggageView.lazy());
+					}
+
+					return ChunkEvents.addChunkEvents(values.map(this::computeSquare), "squares.chunk", CHUNK_SIZE, "squares.count")
+							.doOnComplete(() -> log.info("Respond results to front"));
+				})
+				.name("getSquares-method")
+				.tap(SampledObservation.observation(observationRegistry));
 	}
 
 	private Double computeSquare(Double value) {
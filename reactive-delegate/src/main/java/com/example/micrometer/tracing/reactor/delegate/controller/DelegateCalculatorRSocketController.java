@@ -0,0 +1,50 @@
+package com.example.micrometer.tracing.reactor.delegate.controller;
+
+import com.example.micrometer.tracing.reactor.support.rsocket.RSocketObservations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * RSocket routes equivalent to DelegateCalculatorControllerV2 endpoints (spring.rsocket.server.port) :
+ * values are received and sent in binary (8 bytes), trace context and baggage are extracted from metadata
+ */
+@Controller
+@Slf4j
+public class DelegateCalculatorRSocketController {
+
+	public static final String SQUARE_ROUTE = "delegate.v2.calculator.square";
+	public static final String SQUARES_ROUTE = "delegate.v2.calculator.squares";
+
+	private final DelegateCalculatorControllerV2 delegateCalculatorControllerV2;
+	private final RSocketObservations rSocketObservations;
+
+	public DelegateCalculatorRSocketController(DelegateCalculatorControllerV2 delegateCalculatorControllerV2,
+											   RSocketObservations rSocketObservations) {
+		this.delegateCalculatorControllerV2 = delegateCalculatorControllerV2;
+		this.rSocketObservations = rSocketObservations;
+	}
+
+	/**
+	 * Request-response, same as GET /delegate/v2/calculator/square
+	 */
+	@MessageMapping(SQUARE_ROUTE)
+	public Mono<Double> getSquare(Double value, @Headers Map<String, Object> metadata) {
+		return rSocketObservations.respond(SQUARE_ROUTE, metadata,
+				delegateCalculatorControllerV2.getSquare(value).mapNotNull(ResponseEntity::getBody));
+	}
+
+	/**
+	 * Request-channel, same as POST /delegate/v2/calculator/squares
+	 */
+	@MessageMapping(SQUARES_ROUTE)
+	public Flux<Double> getSquares(Flux<Double> values, @Headers Map<String, Object> metadata) {
+		return rSocketObservations.respondChannel(SQUARES_ROUTE, metadata, values, delegateCalculatorControllerV2::getSquares);
+	}
+}
@@ -0,0 +1,193 @@
+package com.example.micrometer.tracing.reactor.delegate.service;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Squares of a binary stream of doubles (8 bytes little-endian per value) :
+ * <ul>
+ *     <li>values are read from ByteBuffer views of request buffers (no intermediate byte[], no boxing) into chunks of CHUNK_SIZE values</li>
+ *     <li>chunks are computed concurrently on Schedulers.parallel(), results are written in the same order</li>
+ *     <li>a squares.chunk event per chunk is added to the current observation, with compute time</li>
+ * </ul>
+ * ThreadLocals (observation, MDC, baggage) are restored from the Reactor Context on parallel threads, whatever the context-propagation mode.
+ */
+@Service
+@Slf4j
+public class BulkSquareCalculator {
+
+	// 64 KiB of values per chunk
+	public static final int CHUNK_SIZE = 8_192;
+	public static final String CHUNK_EVENT = "squares.chunk";
+	private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	private final ObservationRegistry observationRegistry;
+	private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+	public BulkSquareCalculator(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * @param values        request body, released once read
+	 * @param bufferFactory factory of response buffers
+	 * @return squares, a buffer per chunk
+	 */
+	public Flux<DataBuffer> squares(Flux<DataBuffer> values, DataBufferFactory bufferFactory) {
+		return Flux.deferContextual(contextView -> {
+			DoubleChunker chunker = new DoubleChunker(CHUNK_SIZE);
+			return values
+					.concatMapIterable(chunker::read)
+					.concatWith(Mono.fromSupplier(chunker::flush))
+					// Ordered results, at most one chunk in progress per parallel thread
+					.flatMapSequential(chunk -> compute(chunk, contextView, bufferFactory), Schedulers.DEFAULT_POOL_SIZE, 1)
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+		});
+	}
+
+	private Mono<DataBuffer> compute(Chunk chunk, ContextView contextView, DataBufferFactory bufferFactory) {
+		return Mono.fromCallable(() -> {
+					try (ContextSnapshot.Scope scope = this.contextSnapshotFactory.setThreadLocalsFrom(contextView)) {
+						long startNanos = System.nanoTime();
+						double[] values = chunk.values();
+						int length = chunk.length();
+						// Primitive loop without branch : vectorized by the JIT compiler (SIMD)
+						for (int i = 0; i < length; i++) {
+							values[i] = values[i] * values[i];
+						}
+						DataBuffer squares = write(values, length, bufferFactory);
+						long computeMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+						long toIndex = chunk.fromIndex() + length;
+						log.debug("Chunk [{}, {}[ computed in {} us", chunk.fromIndex(), toIndex, computeMicros);
+						Observation observation = this.observationRegistry.getCurrentObservation();
+						if (observation != null) {
+							observation.event(Observation.Event.of(CHUNK_EVENT,
+									CHUNK_EVENT + " [" + chunk.fromIndex() + ", " + toIndex + "[ " + computeMicros + " us"));
+						}
+						return squares;
+					}
+				})
+				.subscribeOn(Schedulers.parallel());
+	}
+
+	private static DataBuffer write(double[] values, int length, DataBufferFactory bufferFactory) {
+		int byteCount = length * Double.BYTES;
+		DataBuffer buffer = bufferFactory.allocateBuffer(byteCount);
+		try (DataBuffer.ByteBufferIterator byteBuffers = buffer.writableByteBuffers()) {
+			int written = 0;
+			while (written < length && byteBuffers.hasNext()) {
+				DoubleBuffer doubles = byteBuffers.next().order(BYTE_ORDER).asDoubleBuffer();
+				int count = Math.min(doubles.remaining(), length - written);
+				doubles.put(values, written, count);
+				written += count;
+			}
+		}
+		buffer.writePosition(byteCount);
+		return buffer;
+	}
+
+	/**
+	 * @param fromIndex index of first value in the request
+	 * @param length    number of values (= values.length except for last chunk)
+	 */
+	record Chunk(long fromIndex, double[] values, int length) {
+	}
+
+	/**
+	 * Reads values of successive buffers into chunks, a value may be split across two buffers
+	 */
+	static final class DoubleChunker {
+
+		private final int chunkSize;
+		// Bytes of a value split across buffers
+		private final ByteBuffer partialValue = ByteBuffer.allocate(Double.BYTES).order(BYTE_ORDER);
+		private double[] values;
+		private int length;
+		private long fromIndex;
+		private List<Chunk> chunks = new ArrayList<>();
+
+		DoubleChunker(int chunkSize) {
+			this.chunkSize = chunkSize;
+			this.values = new double[chunkSize];
+		}
+
+		/**
+		 * @return chunks completed by the buffer (released)
+		 */
+		List<Chunk> read(DataBuffer buffer) {
+			try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+				while (byteBuffers.hasNext()) {
+					read(byteBuffers.next().order(BYTE_ORDER));
+				}
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+			List<Chunk> completedChunks = this.chunks;
+			this.chunks = new ArrayList<>();
+			return completedChunks;
+		}
+
+		/**
+		 * @return last incomplete chunk, null if none
+		 */
+		Chunk flush() {
+			if (this.partialValue.position() > 0) {
+				throw new ServerWebInputException("Payload size is not a multiple of " + Double.BYTES + " bytes");
+			}
+			return this.length == 0 ? null : new Chunk(this.fromIndex, this.values, this.length);
+		}
+
+		private void read(ByteBuffer bytes) {
+			if (this.partialValue.position() > 0) {
+				while (this.partialValue.hasRemaining() && bytes.hasRemaining()) {
+					this.partialValue.put(bytes.get());
+				}
+				if (this.partialValue.hasRemaining()) {
+					return;
+				}
+				this.values[this.length++] = this.partialValue.getDouble(0);
+				this.partialValue.clear();
+				completeChunk();
+			}
+
+			DoubleBuffer doubles = bytes.asDoubleBuffer();
+			while (doubles.hasRemaining()) {
+				int count = Math.min(doubles.remaining(), this.chunkSize - this.length);
+				doubles.get(this.values, this.length, count);
+				this.length += count;
+				completeChunk();
+			}
+			bytes.position(bytes.position() + doubles.position() * Double.BYTES);
+			this.partialValue.put(bytes);
+		}
+
+		private void completeChunk() {
+			if (this.length == this.chunkSize) {
+				this.chunks.add(new Chunk(this.fromIndex, this.values, this.length));
+				this.fromIndex += this.length;
+				this.values = new double[this.chunkSize];
+				this.length = 0;
+			}
+		}
+	}
+}
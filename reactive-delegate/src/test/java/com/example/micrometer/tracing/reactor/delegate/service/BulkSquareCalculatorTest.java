@@ -0,0 +1,145 @@
+package com.example.micrometer.tracing.reactor.delegate.service;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkSquareCalculatorTest {
+
+	private static final int CHUNK_SIZE = 4;
+
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	@Test
+	void valuesSplitAcrossBuffers() {
+		double[] values = values(10);
+		BulkSquareCalculator.DoubleChunker chunker = new BulkSquareCalculator.DoubleChunker(CHUNK_SIZE);
+
+		// Odd offsets : values split across 2 buffers, and across 3 buffers (1 byte buffers)
+		List<BulkSquareCalculator.Chunk> chunks = read(chunker, cut(bytes(values), 3, 5, 6, 7, 8, 19, 41, 42, 77));
+
+		assertThat(chunks).extracting(BulkSquareCalculator.Chunk::fromIndex).containsExactly(0L, 4L, 8L);
+		assertThat(chunks).extracting(BulkSquareCalculator.Chunk::length).containsExactly(4, 4, 2);
+		assertThat(read(chunks)).containsExactly(values);
+	}
+
+	@Test
+	void chunksCompletedAtChunkBoundaries() {
+		double[] values = values(2 * CHUNK_SIZE);
+		BulkSquareCalculator.DoubleChunker chunker = new BulkSquareCalculator.DoubleChunker(CHUNK_SIZE);
+		byte[] bytes = bytes(values);
+
+		// First buffer ends with the last value of first chunk, second buffer ends with the first byte of the last value
+		List<DataBuffer> buffers = cut(bytes, CHUNK_SIZE * Double.BYTES, bytes.length - Double.BYTES + 1);
+		assertThat(chunker.read(buffers.get(0))).singleElement()
+				.satisfies(chunk -> assertThat(chunk.fromIndex()).isZero());
+		assertThat(chunker.read(buffers.get(1))).isEmpty();
+		List<BulkSquareCalculator.Chunk> lastChunks = chunker.read(buffers.get(2));
+		assertThat(lastChunks).singleElement()
+				.satisfies(chunk -> assertThat(chunk.fromIndex()).isEqualTo(CHUNK_SIZE));
+
+		// Last value completes a chunk : nothing left to flush
+		assertThat(chunker.flush()).isNull();
+		assertThat(read(lastChunks)).containsExactly(Arrays.copyOfRange(values, CHUNK_SIZE, 2 * CHUNK_SIZE));
+	}
+
+	@Test
+	void payloadNotMultipleOfValueSizeRejected() {
+		BulkSquareCalculator.DoubleChunker chunker = new BulkSquareCalculator.DoubleChunker(CHUNK_SIZE);
+		byte[] bytes = Arrays.copyOf(bytes(values(2)), 2 * Double.BYTES + 3);
+
+		// 2 values read, 3 bytes of a third value left
+		assertThat(cut(bytes, 5, 11)).allSatisfy(buffer -> assertThat(chunker.read(buffer)).isEmpty());
+
+		assertThatThrownBy(chunker::flush)
+				.isInstanceOf(ServerWebInputException.class)
+				.hasMessageContaining("not a multiple of 8 bytes");
+	}
+
+	@Test
+	void emptyPayload() {
+		BulkSquareCalculator.DoubleChunker chunker = new BulkSquareCalculator.DoubleChunker(CHUNK_SIZE);
+
+		assertThat(chunker.read(this.bufferFactory.allocateBuffer(0))).isEmpty();
+		assertThat(chunker.flush()).isNull();
+	}
+
+	@Test
+	void squaresInRequestOrder() {
+		// More than a chunk : chunks are computed concurrently
+		double[] values = values(BulkSquareCalculator.CHUNK_SIZE * 2 + 3);
+		byte[] bytes = bytes(values);
+
+		StepVerifier.create(new BulkSquareCalculator(ObservationRegistry.NOOP)
+						.squares(Flux.fromIterable(cut(bytes, 1_001, 65_539, 100_003)), this.bufferFactory)
+						.map(BulkSquareCalculatorTest::doubles)
+						.collectList())
+				.assertNext(squares -> assertThat(squares.stream().flatMapToDouble(DoubleStream::of).toArray())
+						.containsExactly(DoubleStream.of(values).map(value -> value * value).toArray()))
+				.verifyComplete();
+	}
+
+	private static double[] values(int count) {
+		return DoubleStream.iterate(0.5, value -> value + 1.25).limit(count).toArray();
+	}
+
+	private static byte[] bytes(double[] values) {
+		ByteBuffer bytes = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		bytes.asDoubleBuffer().put(values);
+		return bytes.array();
+	}
+
+	/**
+	 * @return buffers of bytes cut at offsets
+	 */
+	private List<DataBuffer> cut(byte[] bytes, int... offsets) {
+		List<DataBuffer> buffers = new ArrayList<>();
+		int from = 0;
+		for (int offset : offsets) {
+			buffers.add(this.bufferFactory.wrap(Arrays.copyOfRange(bytes, from, offset)));
+			from = offset;
+		}
+		buffers.add(this.bufferFactory.wrap(Arrays.copyOfRange(bytes, from, bytes.length)));
+		return buffers;
+	}
+
+	private static List<BulkSquareCalculator.Chunk> read(BulkSquareCalculator.DoubleChunker chunker, List<DataBuffer> buffers) {
+		List<BulkSquareCalculator.Chunk> chunks = new ArrayList<>();
+		buffers.forEach(buffer -> chunks.addAll(chunker.read(buffer)));
+		BulkSquareCalculator.Chunk lastChunk = chunker.flush();
+		if (lastChunk != null) {
+			chunks.add(lastChunk);
+		}
+		return chunks;
+	}
+
+	private static double[] read(List<BulkSquareCalculator.Chunk> chunks) {
+		return chunks.stream()
+				.flatMapToDouble(chunk -> Arrays.stream(chunk.values(), 0, chunk.length()))
+				.toArray();
+	}
+
+	private static double[] doubles(DataBuffer buffer) {
+		ByteBuffer bytes = ByteBuffer.allocate(buffer.readableByteCount()).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.toByteBuffer(bytes);
+		DataBufferUtils.release(buffer);
+		double[] doubles = new double[bytes.capacity() / Double.BYTES];
+		bytes.asDoubleBuffer().get(doubles);
+		return doubles;
+	}
+}
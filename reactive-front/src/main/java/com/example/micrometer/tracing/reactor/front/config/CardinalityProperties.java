@@ -0,0 +1,17 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Cardinality limits of meters generated by manual observations (.tap(Micrometer.observation(...)))
+ *
+ * @param observationNames names of observations whose meters are limited
+ * @param maxValuesPerTag  maximum number of values of a tag key per meter, next values of this key are replaced by "OTHER"
+ */
+@ConfigurationProperties("front.observation.cardinality")
+public record CardinalityProperties(@DefaultValue({"getSquare-method", "computeSquare-method"}) List<String> observationNames,
+									@DefaultValue("100") int maxValuesPerTag) {
+}
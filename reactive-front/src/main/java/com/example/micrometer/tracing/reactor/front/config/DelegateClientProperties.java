@@ -0,0 +1,62 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * HTTP client to ReactiveDelegateApplication
+ *
+ * @param baseUrls        delegate instances, requests are spread round-robin
+ * @param protocol        HTTP11 or H2C (HTTP/2 over cleartext with prior knowledge, requires server.http2.enabled on delegate)
+ * @param connectTimeout  maximum time to establish a connection
+ * @param responseTimeout maximum time between request sent and response received (then between two reads)
+ * @param pool            connection pool
+ * @param rsocket         RSocket client, used instead of HTTP by V3 endpoints when enabled
+ */
+@ConfigurationProperties("front.delegate.client")
+public record DelegateClientProperties(@DefaultValue("http://localhost:11012") List<String> baseUrls,
+									   @DefaultValue("HTTP11") Protocol protocol,
+									   @DefaultValue("2s") Duration connectTimeout,
+									   @DefaultValue("5s") Duration responseTimeout,
+									   @DefaultValue Pool pool,
+									   @DefaultValue RSocket rsocket) {
+
+	public enum Protocol {
+		HTTP11,
+		H2C
+	}
+
+	/**
+	 * @param name                   name of the pool (tag "name" of reactor.netty.connection.provider.* metrics, tag "pool.name" of client spans)
+	 * @param maxConnections         maximum number of connections per delegate instance
+	 * @param maxConcurrentStreams   maximum number of concurrent requests on a connection (H2C only)
+	 * @param pendingAcquireMaxCount maximum number of requests waiting for a connection (then requests fail)
+	 * @param pendingAcquireTimeout  maximum time a request waits for a connection
+	 * @param maxIdleTime            idle connections are closed after this time
+	 * @param maxLifeTime            connections are closed after this time
+	 * @param evictInBackground      interval of background eviction of idle/expired connections (0 = eviction on acquire/release only)
+	 */
+	public record Pool(@DefaultValue("delegate") String name,
+					   @DefaultValue("500") int maxConnections,
+					   @DefaultValue("100") int maxConcurrentStreams,
+					   @DefaultValue("1000") int pendingAcquireMaxCount,
+					   @DefaultValue("10s") Duration pendingAcquireTimeout,
+					   @DefaultValue("30s") Duration maxIdleTime,
+					   @DefaultValue("5m") Duration maxLifeTime,
+					   @DefaultValue("30s") Duration evictInBackground) {
+	}
+
+	/**
+	 * @param enabled V3 computeSquare (request-response) and getSquares (request-channel) call delegate over RSocket (TCP),
+	 *                values are sent in binary, trace context and baggage in metadata
+	 * @param host    delegate host
+	 * @param port    delegate RSocket server port (spring.rsocket.server.port of delegate)
+	 */
+	public record RSocket(@DefaultValue("false") boolean enabled,
+						  @DefaultValue("localhost") String host,
+						  @DefaultValue("11013") int port) {
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of calls to ReactiveDelegateApplication
+ *
+ * @param cache cache of square values computed by delegate
+ * @param batch micro-batching of concurrent calls to delegate
+ * @param hedge hedging of slow calls to delegate
+ */
+@ConfigurationProperties("front.delegate")
+public record DelegateProperties(@DefaultValue Cache cache,
+								 @DefaultValue Batch batch,
+								 @DefaultValue Hedge hedge) {
+
+	/**
+	 * @param enabled          enable cache in front of delegate calls (disabled = every request is sent to delegate)
+	 * @param maximumSize      maximum number of cached square values
+	 * @param expireAfterWrite time to live of a cached square value
+	 */
+	public record Cache(@DefaultValue("false") boolean enabled,
+						@DefaultValue("10000") long maximumSize,
+						@DefaultValue("10m") Duration expireAfterWrite) {
+	}
+
+	/**
+	 * @param enabled              enable micro-batching of concurrent calls to delegate (disabled = a request per value),
+	 *                             batches are sent over RSocket if front.delegate.client.rsocket is enabled
+	 * @param maxSize              maximum number of values sent to delegate in a batch
+	 * @param window               maximum time a value waits for other values before batch is sent
+	 * @param maxConcurrentBatches maximum number of batches sent concurrently to delegate
+	 * @param maxPending           maximum number of values waiting for a batch, next values are rejected
+	 */
+	public record Batch(@DefaultValue("false") boolean enabled,
+						@DefaultValue("100") int maxSize,
+						@DefaultValue("5ms") Duration window,
+						@DefaultValue("16") int maxConcurrentBatches,
+						@DefaultValue("10000") int maxPending) {
+	}
+
+	/**
+	 * @param enabled    send a second request to delegate when first one is slow, first result wins and other request is cancelled
+	 * @param delay      delay before second request (used until enough latencies are measured when percentile is set)
+	 * @param percentile delay = this percentile of live delegate latencies, e.g. 0.95 (0 = fixed delay)
+	 * @param minDelay   minimum delay derived from percentile
+	 */
+	public record Hedge(@DefaultValue("false") boolean enabled,
+						@DefaultValue("50ms") Duration delay,
+						@DefaultValue("0") double percentile,
+						@DefaultValue("5ms") Duration minDelay) {
+	}
+}
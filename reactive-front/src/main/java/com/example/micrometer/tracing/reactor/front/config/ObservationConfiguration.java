@@ -0,0 +1,17 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import com.example.micrometer.tracing.reactor.front.observation.BoundedCardinalityMeterFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CardinalityProperties.class)
+public class ObservationConfiguration {
+
+	// Applied to MeterRegistry as MeterFilter (+ bound as MeterBinder for its own metric)
+	@Bean
+	public BoundedCardinalityMeterFilter boundedCardinalityMeterFilter(CardinalityProperties cardinalityProperties) {
+		return new BoundedCardinalityMeterFilter(cardinalityProperties);
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import com.example.micrometer.tracing.reactor.support.rsocket.RSocketMimeTypes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.rsocket.RSocketRequester;
+
+@Configuration
+@ConditionalOnProperty(prefix = "front.delegate.client.rsocket", name = "enabled")
+public class RSocketConfiguration {
+
+	// Connection is established on first request (and re-established after being closed), disposed with the application context
+	@Bean(destroyMethod = "dispose")
+	public RSocketRequester rSocketRequesterToDelegate(RSocketRequester.Builder rSocketRequesterBuilder, DelegateClientProperties delegateClientProperties) {
+		DelegateClientProperties.RSocket rsocket = delegateClientProperties.rsocket();
+		return rSocketRequesterBuilder
+				.dataMimeType(RSocketMimeTypes.BINARY_DOUBLE)
+				.tcp(rsocket.host(), rsocket.port());
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads requests round-robin on several delegate instances (scheme, host and port of request URL are replaced)
+ * <br/>
+ * Applied after the client observation has been started : trace headers are kept.
+ * Runs before the other filters of the WebClient, which get the rewritten URL.
+ */
+class RoundRobinBaseUrlFilter implements ExchangeFilterFunction {
+
+	private final List<URI> baseUrls;
+	private final AtomicInteger next = new AtomicInteger();
+
+	RoundRobinBaseUrlFilter(List<String> baseUrls) {
+		this.baseUrls = baseUrls.stream()
+				.map(URI::create)
+				.toList();
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		URI baseUrl = this.baseUrls.get(Math.floorMod(this.next.getAndIncrement(), this.baseUrls.size()));
+		URI url = UriComponentsBuilder.fromUri(request.url())
+				.scheme(baseUrl.getScheme())
+				.host(baseUrl.getHost())
+				.port(baseUrl.getPort())
+				.build(true)
+				.toUri();
+		return next.exchange(ClientRequest.from(request).url(url).build());
+	}
+}
@@ -1,13 +1,25 @@
 package com.example.micrometer.tracing.reactor.front.config;
 
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties({DelegateProperties.class, DelegateClientProperties.class})
 public class WebConfiguration {
 
-	private static final String DELEGATE_BASE_URL = "http://localhost:11012";
+	private static final String POOL_NAME_KEY = "pool.name";
 
 	private final WebClient.Builder webClientBuilder;
 
@@ -15,10 +27,49 @@ public class WebConfiguration {
 		this.webClientBuilder = webClientBuilder;
 	}
 
+	// Dedicated pool (metrics reactor.netty.connection.provider.* tagged name=<pool name>), disposed with the application context
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider delegateConnectionProvider(DelegateClientProperties delegateClientProperties) {
+		DelegateClientProperties.Pool pool = delegateClientProperties.pool();
+		ConnectionProvider.Builder builder = ConnectionProvider.builder(pool.name())
+				.maxConnections(pool.maxConnections())
+				.pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+				.pendingAcquireTimeout(pool.pendingAcquireTimeout())
+				.maxIdleTime(pool.maxIdleTime())
+				.maxLifeTime(pool.maxLifeTime())
+				.evictInBackground(pool.evictInBackground())
+				.metrics(true);
+		if (delegateClientProperties.protocol() == DelegateClientProperties.Protocol.H2C) {
+			// Requests are multiplexed on HTTP/2 connections
+			builder.allocationStrategy(Http2AllocationStrategy.builder()
+					.maxConnections(pool.maxConnections())
+					.maxConcurrentStreams(pool.maxConcurrentStreams())
+					.build());
+		}
+		return builder.build();
+	}
+
 	@Bean
-	public WebClient webClientToDelegate() {
-		return this.webClientBuilder
-				.baseUrl(DELEGATE_BASE_URL)
-				.build();
+	public WebClient webClientToDelegate(DelegateClientProperties delegateClientProperties, ConnectionProvider delegateConnectionProvider) {
+		HttpClient httpClient = HttpClient.create(delegateConnectionProvider)
+				.protocol(delegateClientProperties.protocol() == DelegateClientProperties.Protocol.H2C ? HttpProtocol.H2C : HttpProtocol.HTTP11)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) delegateClientProperties.connectTimeout().toMillis())
+				.responseTimeout(delegateClientProperties.responseTimeout());
+
+		WebClient.Builder builder = this.webClientBuilder
+				.baseUrl(delegateClientProperties.baseUrls().get(0))
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				// Client spans and http.client.requests metrics are tagged with the pool name, to correlate them with pool metrics
+				.observationConvention(new DefaultClientRequestObservationConvention() {
+					@Override
+					public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+						return super.getLowCardinalityKeyValues(context).and(KeyValue.of(POOL_NAME_KEY, delegateClientProperties.pool().name()));
+					}
+				});
+		if (delegateClientProperties.baseUrls().size() > 1) {
+			// First filter : filters added by WebClientCustomizers (OutboundBaggageFilter matches destinations on the URL) see the chosen instance
+			builder.filters(filters -> filters.add(0, new RoundRobinBaseUrlFilter(delegateClientProperties.baseUrls())));
+		}
+		return builder.build();
 	}
 }
@@ -1,5 +1,8 @@
 package com.example.micrometer.tracing.reactor.front.controller;
 
+import com.example.micrometer.tracing.reactor.front.observation.RequestValueObservation;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareCache;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +13,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
@@ -27,11 +29,14 @@ public class FrontCalculatorControllerV1 {
 	public static final String DELEGATE_ENDPOINT = "/delegate/v1/calculator/square";
 	private final ObservationRegistry observationRegistry;
 	private final WebClient webClientToDelegate;
+	private final DelegateSquareCache delegateSquareCache;
 
 	public FrontCalculatorControllerV1(ObservationRegistry observationRegistry,
-									   @Qualifier("webClientToDelegate") WebClient webClientToDelegate) {
+									   @Qualifier("webClientToDelegate") WebClient webClientToDelegate,
+									   DelegateSquareCache delegateSquareCache) {
 		this.observationRegistry = observationRegistry;
 		this.webClientToDelegate = webClientToDelegate;
+		this.delegateSquareCache = delegateSquareCache;
 	}
 
 	@GetMapping(path = "/square")
@@ -39,15 +44,14 @@ public class FrontCalculatorControllerV1 {
 
 		return Mono.fromSupplier(() -> value)
 				.doOnNext(aDouble -> log.info("Receive request to calculate square of {}", aDouble))
-				.flatMap(this::computeSquare)
+				.flatMap(aDouble -> delegateSquareCache.get(aDouble, this::computeSquare))
 				.doOnNext(squareValue -> log.info("Respond result = {} to client", squareValue))
 				.map(ResponseEntity::ok)
 				// Name sequence (= name generated span)
 				.name("getSquare-method")
-				// Bind key/value pair to sequence (= set attribute to current span)
-				.tag("value.from.request", value.toString())
-				// Declare observation on sequence (= generate span)
-				.tap(Micrometer.observation(observationRegistry));
+				// Declare observation on sequence (= generate span), value is set as span attribute and its bucket as meter tag
+				// (.tag("value.from.request", ...) would generate meters per distinct value)
+				.tap(SampledObservation.observation(observationRegistry, RequestValueObservation.of("getSquare-method", value)));
 	}
 
 	private Mono<Double> computeSquare(Double value) {
@@ -67,7 +71,7 @@ public class FrontCalculatorControllerV1 {
 								.highCardinalityKeyValue("value.sent.to.delegate", String.valueOf(value))
 								.highCardinalityKeyValue("value.received.from.delegate", String.valueOf(squareValue)))
 				.name("computeSquare-method")
-				.tap(Micrometer.observation(observationRegistry));
+				.tap(SampledObservation.observation(observationRegistry));
 	}
 
 	private Observation getCurrentObservation() {
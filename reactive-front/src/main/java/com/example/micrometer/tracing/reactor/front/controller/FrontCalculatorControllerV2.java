@@ -1,5 +1,10 @@
 package com.example.micrometer.tracing.reactor.front.controller;
 
+import com.example.micrometer.tracing.reactor.front.observation.RequestValueObservation;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareCache;
+import com.example.micrometer.tracing.reactor.front.service.TracingService;
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.contextpropagation.reactor.ReactorBaggage;
@@ -12,7 +17,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
@@ -28,14 +32,20 @@ public class FrontCalculatorControllerV2 {
 	public static final String DELEGATE_ENDPOINT = "/delegate/v2/calculator/square";
 	private final ObservationRegistry observationRegistry;
 	private final WebClient webClientToDelegate;
+	private final DelegateSquareCache delegateSquareCache;
 	private final OtelTracer otelTracer;
+	private final TracingService tracingService;
 
 	public FrontCalculatorControllerV2(ObservationRegistry observationRegistry,
 									   @Qualifier("webClientToDelegate") WebClient webClientToDelegate,
-									   @Qualifier("micrometerOtelTracer") OtelTracer otelTracer) {
+									   @Qualifier("micrometerOtelTracer") OtelTracer otelTracer,
+									   DelegateSquareCache delegateSquareCache,
+									   TracingService tracingService) {
 		this.observationRegistry = observationRegistry;
 		this.webClientToDelegate = webClientToDelegate;
+		this.delegateSquareCache = delegateSquareCache;
 		this.otelTracer = otelTracer;
+		this.tracingService = tracingService;
 
 		// Following configuration is now declared in com.example.micrometer.tracing.reactor.front.service.TracingService (used by V3)
 //		// ##############
@@ -52,20 +62,24 @@ public class FrontCalculatorControllerV2 {
 		return Mono.fromSupplier(() -> value)
 				.doOnNext(aDouble -> {
 					log.info("Receive request to calculate square of {}", aDouble);
-					log.info("Current Baggage = {}", otelTracer.getAllBaggage());
+					// Debug level : rendered only for requests flagged by BaggageDebugTurboFilter (cf tracing.debug-logging)
+					if (log.isDebugEnabled()) {
+						log.debug("Current Baggage = {}", BaggageView.lazy());
+					}
 				})
-				.flatMap(this::computeSquare)
+				.flatMap(aDouble -> delegateSquareCache.get(aDouble, this::computeSquare))
 				.doOnNext(squareValue -> {
 					log.info("Respond result = {} to client", squareValue);
-					log.info("Current Baggage = {}", otelTracer.getAllBaggage());
+					if (log.isDebugEnabled()) {
+						log.debug("Current Baggage = {}", BaggageView.lazy());
+					}
 				})
 				.map(ResponseEntity::ok)
 				// Name sequence (= name generated span)
 				.name("getSquare-method")
-				// Bind key/value pair to sequence (= set attribute to current span)
-				.tag("value.from.request", value.toString())
-				// Declare observation on sequence (= generate span)
-				.tap(Micrometer.observation(observationRegistry))
+				// Declare observation on sequence (= generate span), value is set as span attribute and its bucket as meter tag
+				// (.tag("value.from.request", ...) would generate meters per distinct value)
+				.tap(SampledObservation.observation(observationRegistry, RequestValueObservation.of("getSquare-method", value)))
 				// Appends Baggage - appends here because of https://github.com/micrometer-metrics/tracing/issues/561
 				// Didn't find the explanation of why it must be declared at the end ?
 				.contextWrite(ReactorBaggage.append("baggage.value.from.request", String.valueOf(value)));
@@ -74,23 +88,25 @@ public class FrontCalculatorControllerV2 {
 	private Mono<Double> computeSquare(Double value) {
 		log.info("Request delegate to calculate square of {}", value);
 
-		return webClientToDelegate.get()
-				.uri(uriBuilder ->
-						uriBuilder
-								.path(DELEGATE_ENDPOINT)
-								.queryParam("value", value)
-								.build())
-				// Check context propagation in HTTP headers
-				.httpRequest(clientHttpRequest -> log.info("Request headers to delegate : {}", clientHttpRequest.getHeaders()))
-				.retrieve()
-				.bodyToMono(Double.class)
+		// Subscribed with ThreadLocals restored : request headers are logged with baggage of the request (debug requests only)
+		return tracingService.scoped(Mono.defer(() -> webClientToDelegate.get()
+						.uri(uriBuilder ->
+								uriBuilder
+										.path(DELEGATE_ENDPOINT)
+										.queryParam("value", value)
+										.build())
+						// Check context propagation in HTTP headers
+						// .httpRequest runs on the event loop without ThreadLocals : level and baggage are read on subscription
+						.httpRequest(tracingService.debugRequestHeaders("Request headers to delegate : {}"))
+						.retrieve()
+						.bodyToMono(Double.class)))
 				// Set attributes to current span with Observation API
 				.doOnNext(squareValue ->
 						getCurrentObservation()
 								.highCardinalityKeyValue("value.sent.to.delegate", String.valueOf(value))
 								.highCardinalityKeyValue("value.received.from.delegate", String.valueOf(squareValue)))
 				.name("computeSquare-method")
-				.tap(Micrometer.observation(observationRegistry));
+				.tap(SampledObservation.observation(observationRegistry));
 	}
 
 	private Observation getCurrentObservation() {
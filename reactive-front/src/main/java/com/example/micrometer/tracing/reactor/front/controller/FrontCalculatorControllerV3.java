@@ -1,20 +1,29 @@
 package com.example.micrometer.tracing.reactor.front.controller;
 
+import com.example.micrometer.tracing.reactor.front.observation.CalculatorKeyNames;
+import com.example.micrometer.tracing.reactor.front.observation.RequestValueObservation;
+import com.example.micrometer.tracing.reactor.front.service.DelegateHedger;
+import com.example.micrometer.tracing.reactor.front.service.DelegateRSocketClient;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareBatcher;
+import com.example.micrometer.tracing.reactor.front.service.DelegateSquareCache;
 import com.example.micrometer.tracing.reactor.front.service.TracingService;
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
 import io.micrometer.tracing.contextpropagation.reactor.ReactorBaggage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-
 /**
  * V3 : Factorizing ObservationRegistry & OtelTracer features in a TracingService
  */
@@ -24,13 +33,27 @@ import java.util.Map;
 public class FrontCalculatorControllerV3 {
 
 	public static final String DELEGATE_ENDPOINT = "/delegate/v2/calculator/square";
+	public static final String DELEGATE_BATCH_ENDPOINT = "/delegate/v2/calculator/squares";
+	public static final int CHUNK_SIZE = 1_000;
 	private final WebClient webClientToDelegate;
 	private final TracingService tracingService;
+	private final DelegateSquareCache delegateSquareCache;
+	private final DelegateSquareBatcher delegateSquareBatcher;
+	private final DelegateHedger delegateHedger;
+	private final DelegateRSocketClient delegateRSocketClient;
 
 	public FrontCalculatorControllerV3(@Qualifier("webClientToDelegate") WebClient webClientToDelegate,
-									   TracingService tracingService) {
+									   TracingService tracingService,
+									   DelegateSquareCache delegateSquareCache,
+									   DelegateSquareBatcher delegateSquareBatcher,
+									   DelegateHedger delegateHedger,
+									   @Nullable DelegateRSocketClient delegateRSocketClient) {
 		this.webClientToDelegate = webClientToDelegate;
 		this.tracingService = tracingService;
+		this.delegateSquareCache = delegateSquareCache;
+		this.delegateSquareBatcher = delegateSquareBatcher;
+		this.delegateHedger = delegateHedger;
+		this.delegateRSocketClient = delegateRSocketClient;
 	}
 
 	/**
@@ -44,20 +67,19 @@ public class FrontCalculatorControllerV3 {
 		double value = 2.0;
 
 		return Mono.fromSupplier(() -> value)
-				.doOnNext(aDouble -> {
-					log.info("1 - Current Baggage = {}", this.tracingService.getOtelTracer().getAllBaggage());
-				})
+				// Debug level : rendered only for requests flagged by BaggageDebugTurboFilter (cf tracing.debug-logging)
+				.handle(tracingService.scoped(aDouble ->
+						log.debug("1 - Current Baggage = {}", BaggageView.lazy())))
 				.map(aDouble -> aDouble * aDouble)
 				.flatMap(squareValue ->
 						Mono.just(squareValue)
 								.contextWrite(ReactorBaggage.append("squareValue", String.valueOf(squareValue)))
 				)
-				.doOnNext(aDouble -> {
-					log.info("2 - Current Baggage = {}", this.tracingService.getOtelTracer().getAllBaggage());
-				})
+				.handle(tracingService.scoped(aDouble ->
+						log.debug("2 - Current Baggage = {}", BaggageView.lazy())))
 				.map(ResponseEntity::ok)
 				.name("get-square-of-two")
-				.tap(Micrometer.observation(tracingService.getObservationRegistry()))
+				.tap(tracingService.observation())
 				.contextWrite(ReactorBaggage.append("value", String.valueOf(value)));
 	}
 
@@ -73,53 +95,105 @@ public class FrontCalculatorControllerV3 {
 	public Mono<ResponseEntity<Double>> getSquare(@RequestParam(value = "value") Double value) {
 
 		return Mono.fromSupplier(() -> value)
-				.doOnNext(aDouble -> {
+				// Logs are declared in scoped boundaries : ThreadLocals (MDC, baggage) are restored there only if context-propagation is limited
+				.handle(tracingService.scoped(aDouble -> {
 					log.info("Receive request to calculate square of {}", aDouble);
 					tracingService.logCurrentBaggage();
-				})
-				.flatMap(this::computeSquare)
-				.doOnNext(squareValue -> {
+				}))
+				// Request delegate only if square value is not already cached (cf front.delegate.cache properties)
+				.flatMap(aDouble -> delegateSquareCache.get(aDouble, this::computeSquare))
+				.handle(tracingService.scoped(squareValue -> {
 					log.info("Respond result = {} to client", squareValue);
 					tracingService.logCurrentBaggage();
-				})
+				}))
 				.map(ResponseEntity::ok)
 				// Name sequence (= name generated span)
 				// .name must be declared before .tap to correctly name observation
 				.name("getSquare-method")
-				// Bind key/value pair to sequence (= set attribute to current span)
-				// Can be used to set attributes with values declared before sequence
-				.tag("value.from.request", value.toString())
 				// Declare observation on sequence (= generate span)
-				.tap(Micrometer.observation(tracingService.getObservationRegistry()))
+				// Request value is set as span attribute (high cardinality) and its bucket as meter tag :
+				// .tag("value.from.request", ...) would be a low cardinality key value, generating meters per distinct value
+				.tap(tracingService.observation(RequestValueObservation.of("getSquare-method", value)))
 				// Check https://github.com/micrometer-metrics/tracing/issues/959#issuecomment-2706448262 for explanation on why .contextWrite() must be at the end of the sequence
 				.contextWrite(ReactorBaggage.append("baggage.value.from.request", String.valueOf(value)));
 	}
 
-	private Mono<Double> computeSquare(Double value) {
-		log.info("Request delegate to calculate square of {}", value);
+	/**
+	 * Endpoint to compute square values of a stream of values (NDJSON).
+	 * <br/>
+	 * Values are streamed to ReactiveDelegateApplication in a single request, results are streamed back with backpressure.
+	 * <br/>
+	 * Whole batch is traced by a single span, with an event per chunk of values.
+	 *
+	 * @param values to compute the square of
+	 * @return square values, in the same order as values
+	 */
+	@PostMapping(path = "/squares",
+			consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Double> getSquares(@RequestBody Flux<Double> values) {
 
-		return webClientToDelegate.get()
-				.uri(uriBuilder ->
-						uriBuilder
-								.path(DELEGATE_ENDPOINT)
-								.queryParam("value", value)
-								.build())
-				// Check context propagation in HTTP headers
-				.httpRequest(clientHttpRequest -> log.info("Request headers to delegate : {}", clientHttpRequest.getHeaders()))
+		return tracingService.addChunkEvents(computeSquares(values), "squares.chunk", CHUNK_SIZE, "squares.count")
+				.name("getSquares-method")
+				.tap(tracingService.observation());
+	}
+
+	private Flux<Double> computeSquares(Flux<Double> values) {
+		log.info("Request delegate to calculate square of a stream of values");
+
+		// Request-channel if RSocket is enabled (cf front.delegate.client.rsocket properties)
+		if (delegateRSocketClient != null) {
+			return delegateRSocketClient.getSquares(values);
+		}
+
+		return webClientToDelegate.post()
+				.uri(DELEGATE_BATCH_ENDPOINT)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.body(values, Double.class)
 				.retrieve()
-				.bodyToMono(Double.class)
-				.doOnNext(squareValue ->
+				.bodyToFlux(Double.class);
+	}
+
+	private Mono<Double> computeSquare(Double value) {
+		return Mono.just(value)
+				.handle(tracingService.scoped(aDouble -> log.info("Request delegate to calculate square of {}", aDouble)))
+				// Value is sent with other concurrent values if batching is enabled (cf front.delegate.batch properties)
+				// otherwise a slow request is hedged if hedging is enabled (cf front.delegate.hedge properties)
+				.flatMap(aDouble -> delegateSquareBatcher.compute(aDouble, valueToCompute -> delegateHedger.call(valueToCompute, this::requestDelegate)))
+				.handle(tracingService.scoped(squareValue ->
 						// Set attributes to current span with Observation API
 						// Can be used to set attributes from result of previous Reactor operator (squareValue here)
 						tracingService.addAttributes(
-								Map.of(
-										"value.sent.to.delegate", value,
-										"value.received.from.delegate", squareValue)))
+								CalculatorKeyNames.VALUE_SENT_TO_DELEGATE, value,
+								CalculatorKeyNames.VALUE_RECEIVED_FROM_DELEGATE, squareValue)))
 				.flatMap(squareValue -> {
 					// Add squareValue returned by HTTP request in Baggage
 					return this.tracingService.addBaggage(squareValue, "baggage.value.received.from.delegate", String.valueOf(squareValue));
 				})
 				.name("computeSquare-method")
-				.tap(Micrometer.observation(tracingService.getObservationRegistry()));
+				.tap(tracingService.observation());
+	}
+
+	private Mono<Double> requestDelegate(Double value) {
+		// Request-response if RSocket is enabled (cf front.delegate.client.rsocket properties)
+		if (delegateRSocketClient != null) {
+			// ThreadLocals are restored from Reactor Context by the client observation
+			return delegateRSocketClient.getSquare(value);
+		}
+		// Subscribed with ThreadLocals restored : current baggage is injected in request headers
+		return tracingService.scoped(Mono.defer(() -> webClientToDelegate.get()
+				.uri(uriBuilder ->
+						uriBuilder
+								.path(DELEGATE_ENDPOINT)
+								.queryParam("value", value)
+								.build())
+				// Check context propagation in HTTP headers (debug requests only)
+				.httpRequest(tracingService.debugRequestHeaders("Request headers to delegate : {}"))
+				// Not retrieve() : a hedge attempt cancelled while its body is read would drop an error (body released due to cancellation),
+				// exchangeToMono releases the body itself on cancellation
+				.exchangeToMono(response -> response.statusCode().isError()
+						? response.createError()
+						: response.bodyToMono(Double.class))));
 	}
 }
@@ -0,0 +1,98 @@
+package com.example.micrometer.tracing.reactor.front.observation;
+
+import com.example.micrometer.tracing.reactor.front.config.CardinalityProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bound cardinality of meters generated by manual observations : safety net, request-derived values must not be
+ * low cardinality key values in the first place (cf RequestValueObservation).
+ * <br/>
+ * MeterRegistry keeps a meter per id before filters are applied : this filter bounds exported series, not memory.
+ * <br/>
+ * Number of values per tag key and meter is capped : next values of the offending key only are replaced by "OTHER",
+ * other tags (status, error, type...) are kept.
+ * <br/>
+ * Metric : observation.meter.tags.dropped (tag values replaced by "OTHER", per observation)
+ */
+@Slf4j
+public class BoundedCardinalityMeterFilter implements MeterFilter, MeterBinder {
+
+	public static final String OTHER = "OTHER";
+
+	private final List<String> observationNames;
+	private final int maxValuesPerTag;
+	// meter name -> tag key -> values
+	private final Map<String, Map<String, Set<String>>> valuesPerMeter = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> droppedPerObservation = new ConcurrentHashMap<>();
+
+	public BoundedCardinalityMeterFilter(CardinalityProperties cardinalityProperties) {
+		this.observationNames = List.copyOf(cardinalityProperties.observationNames());
+		this.maxValuesPerTag = cardinalityProperties.maxValuesPerTag();
+		this.observationNames.forEach(observationName -> this.droppedPerObservation.put(observationName, new LongAdder()));
+	}
+
+	@Override
+	public Meter.Id map(Meter.Id id) {
+		String observationName = this.observationNameOf(id.getName());
+		if (observationName == null) {
+			return id;
+		}
+
+		Map<String, Set<String>> valuesPerTag = this.valuesPerMeter.computeIfAbsent(id.getName(), name -> new ConcurrentHashMap<>());
+		List<Tag> tags = new ArrayList<>();
+		boolean replaced = false;
+		for (Tag tag : id.getTagsAsIterable()) {
+			Set<String> values = valuesPerTag.computeIfAbsent(tag.getKey(), key -> new HashSet<>());
+			synchronized (values) {
+				if (values.contains(tag.getValue()) || values.size() < this.maxValuesPerTag) {
+					values.add(tag.getValue());
+					tags.add(tag);
+					continue;
+				}
+			}
+
+			replaced = true;
+			this.droppedPerObservation.get(observationName).increment();
+			log.debug("Values limit of {} reached for tag {} of meter {}, value {} is replaced by {}",
+					this.maxValuesPerTag, tag.getKey(), id.getName(), tag.getValue(), OTHER);
+			tags.add(Tag.of(tag.getKey(), OTHER));
+		}
+		return replaced ? id.replaceTags(tags) : id;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.droppedPerObservation.forEach((observationName, dropped) ->
+				FunctionCounter.builder("observation.meter.tags.dropped", dropped, LongAdder::doubleValue)
+						.description("Tag values replaced by " + OTHER + " because of values limit")
+						.tag("observation", observationName)
+						.register(registry));
+	}
+
+	/**
+	 * @return observation generating meter (meterName or meterName.suffix), null if meter is not limited
+	 */
+	private String observationNameOf(String meterName) {
+		for (String observationName : this.observationNames) {
+			if (meterName.startsWith(observationName)
+					&& (meterName.length() == observationName.length() || meterName.charAt(observationName.length()) == '.')) {
+				return observationName;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,23 @@
+package com.example.micrometer.tracing.reactor.front.observation;
+
+import io.micrometer.common.docs.KeyName;
+
+/**
+ * Attributes set on calculator spans (high cardinality : spans only)
+ */
+public enum CalculatorKeyNames implements KeyName {
+
+	VALUE_SENT_TO_DELEGATE {
+		@Override
+		public String asString() {
+			return "value.sent.to.delegate";
+		}
+	},
+
+	VALUE_RECEIVED_FROM_DELEGATE {
+		@Override
+		public String asString() {
+			return "value.received.from.delegate";
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.micrometer.tracing.reactor.front.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.function.Function;
+
+/**
+ * Observation of a sequence processing a value received in a request, to be used with .tap(...) (observation supplier).
+ * <br/>
+ * Reactor .tag(key, value) declares a low cardinality key value : every distinct value would generate new meters
+ * (kept by MeterRegistry whatever MeterFilter does). Full value is set as high cardinality key value (spans only),
+ * meters are tagged with its order of magnitude.
+ */
+public final class RequestValueObservation {
+
+	/**
+	 * Full value (high cardinality : spans only)
+	 */
+	public static final String VALUE_KEY = "value.from.request";
+	/**
+	 * Order of magnitude of value (low cardinality : spans and meters)
+	 */
+	public static final String VALUE_BUCKET_KEY = "value.from.request.bucket";
+
+	private RequestValueObservation() {
+	}
+
+	/**
+	 * @param name  observation name (also use .name(name) before .tap(...) : contextual name of span)
+	 * @param value value received in request
+	 * @return observation supplier for TracingService.observation(...) / SampledObservation.observation(...)
+	 */
+	public static Function<ObservationRegistry, Observation> of(String name, Double value) {
+		return observationRegistry -> Observation.createNotStarted(name, observationRegistry)
+				// Key values are set before start : long task timer (name.active) is tagged with bucket too
+				.lowCardinalityKeyValue(VALUE_BUCKET_KEY, bucket(value))
+				.highCardinalityKeyValue(VALUE_KEY, String.valueOf(value));
+	}
+
+	/**
+	 * @return order of magnitude of a value : negative, [0,1), [1,10), [10,100), [100,1000), [1000,+inf), NaN
+	 */
+	static String bucket(double value) {
+		if (Double.isNaN(value)) {
+			return "NaN";
+		} else if (value < 0) {
+			return "negative";
+		} else if (value < 1) {
+			return "[0,1)";
+		} else if (value < 10) {
+			return "[1,10)";
+		} else if (value < 100) {
+			return "[10,100)";
+		} else if (value < 1000) {
+			return "[100,1000)";
+		}
+		return "[1000,+inf)";
+	}
+}
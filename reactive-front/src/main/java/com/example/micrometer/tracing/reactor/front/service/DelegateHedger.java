@@ -0,0 +1,230 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hedging of calls to ReactiveDelegateApplication : when a call is slower than a delay, a second attempt is sent,
+ * first successful result wins and the other attempt is cancelled (its request is aborted, no delegate work is kept busy).
+ * <br/>
+ * Delay is fixed, or derived from a percentile of live latencies of first attempts. A first attempt cancelled because the hedge attempt
+ * won is recorded with its elapsed time as a lower bound : it was cancelled after the hedge delay, so the delay percentile stays exact.
+ * <br/>
+ * Each attempt is traced by a "computeSquare-attempt" span (tags attempt = 1/2, outcome = won/cancelled/failed),
+ * not created for unsampled traces.
+ * <br/>
+ * Metrics : delegate.hedge.calls (hedged = true/false), delegate.hedge.latency (winner = primary/hedge),
+ * delegate.hedge.latency.saved (calls won by the hedge attempt : mean of first attempt latencies above the elapsed time
+ * of the cancelled first attempt - this elapsed time, a lower bound as latencies of cancelled attempts are lower bounds)
+ */
+@Service
+@Slf4j
+public class DelegateHedger {
+
+	public static final String ATTEMPT_SPAN_NAME = "computeSquare-attempt";
+
+	private static final String ATTEMPT_KEY = "attempt";
+	private static final String OUTCOME_KEY = "outcome";
+	private static final int LATENCY_WINDOW_SIZE = 1024;
+	private static final int MIN_LATENCY_SAMPLES = 100;
+	private static final int PRIMARY = 1;
+	private static final int HEDGE = 2;
+
+	private final ObservationRegistry observationRegistry;
+	private final DelegateProperties.Hedge hedgeProperties;
+	private final LatencyWindow primaryLatencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
+	private final Counter unhedgedCalls;
+	private final Counter hedgedCalls;
+	private final Timer primaryWinLatency;
+	private final Timer hedgeWinLatency;
+	private final Timer latencySaved;
+
+	public DelegateHedger(ObservationRegistry observationRegistry,
+						  DelegateProperties delegateProperties,
+						  MeterRegistry meterRegistry) {
+		this.observationRegistry = observationRegistry;
+		this.hedgeProperties = delegateProperties.hedge();
+		this.unhedgedCalls = hedgeCalls(meterRegistry, false);
+		this.hedgedCalls = hedgeCalls(meterRegistry, true);
+		this.primaryWinLatency = hedgeLatency(meterRegistry, "primary");
+		this.hedgeWinLatency = hedgeLatency(meterRegistry, "hedge");
+		this.latencySaved = Timer.builder("delegate.hedge.latency.saved")
+				.description("Latency saved by calls won by the hedge attempt (estimated first attempt latency - hedged call latency)")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Call delegate, with a second attempt if first one is slower than hedge delay
+	 *
+	 * @param value        to compute the square of
+	 * @param delegateCall call to delegate (subscribed once per attempt)
+	 * @return square value of the first successful attempt
+	 */
+	public Mono<Double> call(Double value, Function<Double, Mono<Double>> delegateCall) {
+		if (!this.hedgeProperties.enabled()) {
+			return delegateCall.apply(value);
+		}
+
+		return Mono.defer(() -> {
+			HedgedCall hedgedCall = new HedgedCall(System.nanoTime());
+			Duration hedgeDelay = hedgeDelay();
+			Mono<Double> hedge = Mono.delay(hedgeDelay)
+					.then(Mono.defer(() -> {
+						log.debug("Delegate call for {} slower than {}, sending hedge attempt", value, hedgeDelay);
+						hedgedCall.hedged = true;
+						return attempt(HEDGE, value, delegateCall, hedgedCall);
+					}));
+
+			// First value cancels the other attempt, or the hedge delay (no hedge attempt sent if the first attempt wins before)
+			return Mono.firstWithValue(attempt(PRIMARY, value, delegateCall, hedgedCall), hedge)
+					.doOnSuccess(squareValue -> record(hedgedCall))
+					// Both attempts failed : error of first attempt (errors of the sources are suppressed in the cause, in source order)
+					.onErrorMap(NoSuchElementException.class, e -> {
+						List<Throwable> errors = Exceptions.unwrapMultiple(e.getCause());
+						return errors.isEmpty() ? e : errors.get(0);
+					});
+		});
+	}
+
+	private Mono<Double> attempt(int attempt, Double value, Function<Double, Mono<Double>> delegateCall, HedgedCall hedgedCall) {
+		return Mono.deferContextual(contextView -> {
+			// Child span of current observation, parent of the HTTP client span (Observation.NOOP if trace is not sampled)
+			Observation observation = SampledObservation.createNotStarted(ATTEMPT_SPAN_NAME,
+							contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null), this.observationRegistry)
+					.lowCardinalityKeyValue(ATTEMPT_KEY, String.valueOf(attempt))
+					.start();
+			long startNanos = System.nanoTime();
+
+			return delegateCall.apply(value)
+					.doOnSuccess(squareValue -> {
+						// Set before Mono.firstWithValue cancels the other attempt
+						hedgedCall.win(attempt);
+						if (attempt == PRIMARY) {
+							this.primaryLatencies.record(System.nanoTime() - startNanos);
+						}
+						observation.lowCardinalityKeyValue(OUTCOME_KEY, Outcome.WON.value);
+					})
+					.doOnError(error -> observation.error(error)
+							.lowCardinalityKeyValue(OUTCOME_KEY, Outcome.FAILED.value))
+					.doOnCancel(() -> {
+						int winner = hedgedCall.winner.get();
+						// The winning attempt may still be cancelled after its value : outcome stays won
+						if (winner == attempt) {
+							return;
+						}
+						if (attempt == PRIMARY && winner == HEDGE) {
+							primaryCancelled(System.nanoTime() - startNanos);
+						}
+						observation.lowCardinalityKeyValue(OUTCOME_KEY, Outcome.CANCELLED.value);
+					})
+					.doFinally(signalType -> observation.stop())
+					// Observation.NOOP is not put in Context : it would hide parent observation from the HTTP client
+					.contextWrite(context -> observation.isNoop() ? context : context.put(ObservationThreadLocalAccessor.KEY, observation));
+		});
+	}
+
+	/**
+	 * First attempt cancelled because the hedge attempt won : its latency is at least elapsedNanos.
+	 * <br/>
+	 * Calls cancelled by the client are not recorded : they may be cancelled before the hedge delay, lowering the percentile.
+	 */
+	private void primaryCancelled(long elapsedNanos) {
+		this.primaryLatencies.recordLowerBound(elapsedNanos);
+		long estimatedLatencyNanos = this.primaryLatencies.meanAbove(elapsedNanos);
+		if (estimatedLatencyNanos > 0) {
+			this.latencySaved.record(estimatedLatencyNanos - elapsedNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Duration hedgeDelay() {
+		if (this.hedgeProperties.percentile() <= 0) {
+			return this.hedgeProperties.delay();
+		}
+
+		long percentileNanos = this.primaryLatencies.percentile(this.hedgeProperties.percentile(), MIN_LATENCY_SAMPLES);
+		if (percentileNanos < 0) {
+			return this.hedgeProperties.delay();
+		}
+		return Duration.ofNanos(Math.max(percentileNanos, this.hedgeProperties.minDelay().toNanos()));
+	}
+
+	private void record(HedgedCall hedgedCall) {
+		long latencyNanos = System.nanoTime() - hedgedCall.startNanos;
+		if (!hedgedCall.hedged) {
+			this.unhedgedCalls.increment();
+			this.primaryWinLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+			return;
+		}
+
+		this.hedgedCalls.increment();
+		if (hedgedCall.winner.get() != HEDGE) {
+			this.primaryWinLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+			return;
+		}
+
+		// Latency saved is recorded when first attempt is cancelled
+		this.hedgeWinLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static Counter hedgeCalls(MeterRegistry meterRegistry, boolean hedged) {
+		return Counter.builder("delegate.hedge.calls")
+				.description("Calls to delegate, hedged = a second attempt was sent")
+				.tag("hedged", String.valueOf(hedged))
+				.register(meterRegistry);
+	}
+
+	private static Timer hedgeLatency(MeterRegistry meterRegistry, String winner) {
+		return Timer.builder("delegate.hedge.latency")
+				.description("Latency of calls to delegate with hedging enabled to delegate, by winning attempt")
+				.tag("winner", winner)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	private enum Outcome {
+		WON("won"),
+		// Other attempt won, or call cancelled (e.g. client disconnected)
+		CANCELLED("cancelled"),
+		FAILED("failed");
+
+		private final String value;
+
+		Outcome(String value) {
+			this.value = value;
+		}
+	}
+
+	private static final class HedgedCall {
+
+		private final long startNanos;
+		private final AtomicInteger winner = new AtomicInteger();
+		private volatile boolean hedged;
+
+		private HedgedCall(long startNanos) {
+			this.startNanos = startNanos;
+		}
+
+		// First successful attempt wins
+		private void win(int attempt) {
+			this.winner.compareAndSet(0, attempt);
+		}
+	}
+}
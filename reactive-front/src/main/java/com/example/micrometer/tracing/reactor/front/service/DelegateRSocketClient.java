@@ -0,0 +1,70 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateClientProperties;
+import com.example.micrometer.tracing.reactor.support.baggage.OutboundBaggageFilter;
+import com.example.micrometer.tracing.reactor.support.rsocket.RSocketObservations;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Calls to ReactiveDelegateApplication over RSocket (front.delegate.client.rsocket) : values are sent in binary (8 bytes),
+ * trace context and baggage in metadata (same outbound baggage policy as WebClient requests)
+ */
+@Service
+@ConditionalOnProperty(prefix = "front.delegate.client.rsocket", name = "enabled")
+@Slf4j
+public class DelegateRSocketClient {
+
+	public static final String SQUARE_ROUTE = "delegate.v2.calculator.square";
+	public static final String SQUARES_ROUTE = "delegate.v2.calculator.squares";
+
+	private final RSocketRequester rSocketRequesterToDelegate;
+	private final RSocketObservations rSocketObservations;
+	private final OutboundBaggageFilter outboundBaggageFilter;
+	private final String remoteAddress;
+
+	public DelegateRSocketClient(@Qualifier("rSocketRequesterToDelegate") RSocketRequester rSocketRequesterToDelegate,
+								 RSocketObservations rSocketObservations,
+								 ObjectProvider<OutboundBaggageFilter> outboundBaggageFilter,
+								 DelegateClientProperties delegateClientProperties) {
+		this.rSocketRequesterToDelegate = rSocketRequesterToDelegate;
+		this.rSocketObservations = rSocketObservations;
+		this.outboundBaggageFilter = outboundBaggageFilter.getIfAvailable();
+		this.remoteAddress = "tcp://" + delegateClientProperties.rsocket().host() + ":" + delegateClientProperties.rsocket().port();
+	}
+
+	/**
+	 * Request-response
+	 */
+	public Mono<Double> getSquare(Double value) {
+		return rSocketObservations.requestResponse(SQUARE_ROUTE, remoteAddress, propagationHeaders ->
+				rSocketRequesterToDelegate.route(SQUARE_ROUTE)
+						.metadata(RSocketObservations.metadata(outbound(propagationHeaders)))
+						.data(value)
+						.retrieveMono(Double.class));
+	}
+
+	/**
+	 * Request-channel : a payload per value in both directions, with backpressure
+	 */
+	public Flux<Double> getSquares(Flux<Double> values) {
+		return rSocketObservations.requestChannel(SQUARES_ROUTE, remoteAddress, propagationHeaders ->
+				rSocketRequesterToDelegate.route(SQUARES_ROUTE)
+						.metadata(RSocketObservations.metadata(outbound(propagationHeaders)))
+						.data(values, Double.class)
+						.retrieveFlux(Double.class));
+	}
+
+	private HttpHeaders outbound(HttpHeaders propagationHeaders) {
+		HttpHeaders outboundHeaders = outboundBaggageFilter == null ? propagationHeaders : outboundBaggageFilter.apply(remoteAddress, propagationHeaders);
+		log.debug("Metadata to delegate : {}", outboundHeaders);
+		return outboundHeaders;
+	}
+}
@@ -0,0 +1,230 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.otel.bridge.OtelSpan;
+import io.opentelemetry.api.trace.SpanContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Micro-batching of concurrent calls to ReactiveDelegateApplication.
+ * <br/>
+ * Values requested within a window (or up to a max size) are sent to delegate in a single batch request,
+ * results are dispatched back to each waiting request.
+ * <br/>
+ * A batch is sent over RSocket (request-channel) if it is enabled (cf front.delegate.client.rsocket properties), otherwise as a POST NDJSON request.
+ * <br/>
+ * Values are queued in a lock-free multi-producer queue (no retry loop on concurrent emission), at most maxPending values wait
+ * for a batch : next values are rejected (503) instead of growing the queue while delegate is slow.
+ * <br/>
+ * A batch is traced by a "computeSquare-batch" span, child of a sampled request of the batch (not traced if no request is sampled).
+ * Span of each request in the batch and batch span are linked to each other.
+ * <br/>
+ * Metrics : delegate.batch.size (values per batch), delegate.batch.queueing (time waited by a value before batch is sent)
+ */
+@Service
+@Slf4j
+public class DelegateSquareBatcher implements DisposableBean {
+
+	public static final String DELEGATE_BATCH_ENDPOINT = "/delegate/v2/calculator/squares";
+	public static final String BATCH_SPAN_NAME = "computeSquare-batch";
+
+	private final WebClient webClientToDelegate;
+	private final Function<Flux<Double>, Flux<Double>> batchCall;
+	private final TracingService tracingService;
+	private final boolean enabled;
+	private final int maxPending;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final DistributionSummary batchSize;
+	private final Timer queueing;
+	private final Sinks.Many<PendingSquare> pendingSquares;
+	private final Disposable batching;
+
+	public DelegateSquareBatcher(@Qualifier("webClientToDelegate") WebClient webClientToDelegate,
+								 DelegateProperties delegateProperties,
+								 TracingService tracingService,
+								 MeterRegistry meterRegistry,
+								 @Nullable DelegateRSocketClient delegateRSocketClient) {
+		DelegateProperties.Batch batchProperties = delegateProperties.batch();
+		this.webClientToDelegate = webClientToDelegate;
+		this.batchCall = delegateRSocketClient != null ? delegateRSocketClient::getSquares : this::postBatch;
+		this.tracingService = tracingService;
+		this.enabled = batchProperties.enabled();
+		this.maxPending = batchProperties.maxPending();
+		this.batchSize = DistributionSummary.builder("delegate.batch.size")
+				.description("Number of values sent to delegate in a batch")
+				.baseUnit("values")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.queueing = Timer.builder("delegate.batch.queueing")
+				.description("Time waited by a value before its batch is sent to delegate")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		// MPSC queue : offer is thread safe and drain loop is guarded by a work-in-progress counter,
+		// concurrent emissions neither fail (FAIL_NON_SERIALIZED) nor spin
+		this.pendingSquares = Sinks.unsafe().many().unicast().onBackpressureBuffer(Queues.<PendingSquare>unboundedMultiproducer().get());
+		this.batching = this.enabled
+				? this.pendingSquares.asFlux()
+				.bufferTimeout(batchProperties.maxSize(), batchProperties.window(), true)
+				.flatMap(this::sendBatch, batchProperties.maxConcurrentBatches())
+				.subscribe()
+				: null;
+	}
+
+	/**
+	 * Compute square value in a batch with other concurrent requests
+	 *
+	 * @param value         to compute the square of
+	 * @param unbatchedCall call to delegate used when batching is disabled
+	 * @return square value
+	 */
+	public Mono<Double> compute(Double value, Function<Double, Mono<Double>> unbatchedCall) {
+		if (!this.enabled) {
+			return unbatchedCall.apply(value);
+		}
+
+		// Observation of the request is read from Reactor Context (no ThreadLocal restoration needed)
+		return Mono.deferContextual(contextView -> {
+			if (this.pending.incrementAndGet() > this.maxPending) {
+				this.pending.decrementAndGet();
+				return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many values waiting for a batch"));
+			}
+
+			Sinks.One<Double> result = Sinks.one();
+			Sinks.EmitResult emitResult = this.pendingSquares.tryEmitNext(new PendingSquare(value, result,
+					this.tracingService.currentObservation(contextView), this.tracingService.currentSpan(contextView), System.nanoTime()));
+			if (emitResult.isFailure()) {
+				// Batching stopped (shutdown)
+				this.pending.decrementAndGet();
+				return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Batching stopped : " + emitResult));
+			}
+			return result.asMono();
+		});
+	}
+
+	private Mono<Void> sendBatch(List<PendingSquare> batch) {
+		this.pending.addAndGet(-batch.size());
+		Observation parentObservation = parentObservation(batch);
+		// Batch observation (created by tap below) is read from Reactor Context
+		return Mono.deferContextual(contextView -> {
+			this.recordBatch(batch);
+			this.linkSpans(batch, this.tracingService.currentSpan(contextView));
+			this.tracingService.currentObservation(contextView).highCardinalityKeyValue("batch.size", String.valueOf(batch.size()));
+
+			return this.batchCall.apply(Flux.fromIterable(batch).map(PendingSquare::value))
+					.collectList();
+		})
+				.doOnNext(squareValues -> {
+					if (squareValues.size() != batch.size()) {
+						throw new IllegalStateException("Delegate returned " + squareValues.size() + " values for a batch of " + batch.size());
+					}
+					for (int i = 0; i < batch.size(); i++) {
+						batch.get(i).result().tryEmitValue(squareValues.get(i));
+					}
+				})
+				.name(BATCH_SPAN_NAME)
+				// Not created if parent trace is not sampled
+				.tap(SampledObservation.observation(this.tracingService.getObservationRegistry()))
+				.contextWrite(context -> parentObservation != null ? context.put(ObservationThreadLocalAccessor.KEY, parentObservation) : context)
+				.doOnError(throwable -> batch.forEach(pendingSquare -> pendingSquare.result().tryEmitError(throwable)))
+				.onErrorComplete()
+				.then();
+	}
+
+	private Flux<Double> postBatch(Flux<Double> values) {
+		return this.webClientToDelegate.post()
+				.uri(DELEGATE_BATCH_ENDPOINT)
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.accept(MediaType.APPLICATION_NDJSON)
+				.body(values, Double.class)
+				.retrieve()
+				.bodyToFlux(Double.class);
+	}
+
+	/**
+	 * Batch is not subscribed by a request : its parent is the observation of the first sampled request of the batch
+	 * (or of the first request if none is sampled, so that no batch trace is started for unsampled requests)
+	 *
+	 * @return parent observation of batch observation, null if no request has one
+	 */
+	private static Observation parentObservation(List<PendingSquare> batch) {
+		Observation parentObservation = null;
+		for (PendingSquare pendingSquare : batch) {
+			if (pendingSquare.span() != null && Boolean.TRUE.equals(pendingSquare.span().context().sampled())) {
+				return pendingSquare.observation();
+			}
+			if (parentObservation == null && !pendingSquare.observation().isNoop()) {
+				parentObservation = pendingSquare.observation();
+			}
+		}
+		return parentObservation;
+	}
+
+	private void recordBatch(List<PendingSquare> batch) {
+		this.batchSize.record(batch.size());
+		long now = System.nanoTime();
+		batch.forEach(pendingSquare -> this.queueing.record(now - pendingSquare.enqueuedAtNanos(), TimeUnit.NANOSECONDS));
+	}
+
+	private void linkSpans(List<PendingSquare> batch, Span batchSpan) {
+		if (batchSpan == null) {
+			log.debug("No current span found, batch of {} values is not linked", batch.size());
+			return;
+		}
+
+		io.opentelemetry.api.trace.Span otelBatchSpan = OtelSpan.toOtel(batchSpan);
+		SpanContext batchSpanContext = otelBatchSpan.getSpanContext();
+		batch.stream()
+				.map(PendingSquare::span)
+				.filter(Objects::nonNull)
+				.map(OtelSpan::toOtel)
+				.forEach(requestSpan -> {
+					// Links are added on started spans, which Micrometer Span API does not allow
+					requestSpan.addLink(batchSpanContext);
+					otelBatchSpan.addLink(requestSpan.getSpanContext());
+				});
+	}
+
+	@Override
+	public void destroy() {
+		if (this.batching != null) {
+			this.pendingSquares.tryEmitComplete();
+			this.batching.dispose();
+		}
+	}
+
+	/**
+	 * @param value           to compute the square of
+	 * @param result          square value to dispatch to waiting request
+	 * @param observation     observation of waiting request (Observation.NOOP if none)
+	 * @param span            span of waiting request (nullable)
+	 * @param enqueuedAtNanos System.nanoTime() when value was submitted
+	 */
+	private record PendingSquare(Double value, Sinks.One<Double> result, Observation observation, Span span, long enqueuedAtNanos) {
+	}
+}
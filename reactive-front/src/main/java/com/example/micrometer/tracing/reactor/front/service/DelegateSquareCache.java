@@ -0,0 +1,115 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.tracing.Link;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Cache of square values computed by ReactiveDelegateApplication.
+ * <br/>
+ * Concurrent requests for the same value share a single call to delegate (in-flight result is cached).
+ * <br/>
+ * A cache hit generates a "computeSquare-cache-hit" span linked to the span of the request which called delegate.
+ * <br/>
+ * Metrics : cache.gets (hit/miss), cache.evictions, cache.size... with tag cache=delegate.square
+ */
+@Service
+@Slf4j
+public class DelegateSquareCache {
+
+	public static final String CACHE_NAME = "delegate.square";
+	public static final String CACHE_HIT_SPAN_NAME = "computeSquare-cache-hit";
+
+	private final TracingService tracingService;
+	private final boolean enabled;
+	private final AsyncCache<Double, CachedSquare> cache;
+
+	public DelegateSquareCache(DelegateProperties delegateProperties,
+							   TracingService tracingService,
+							   MeterRegistry meterRegistry) {
+		DelegateProperties.Cache cacheProperties = delegateProperties.cache();
+		this.tracingService = tracingService;
+		this.enabled = cacheProperties.enabled();
+		this.cache = CaffeineCacheMetrics.monitor(
+				meterRegistry,
+				Caffeine.newBuilder()
+						.maximumSize(cacheProperties.maximumSize())
+						.expireAfterWrite(cacheProperties.expireAfterWrite())
+						.recordStats()
+						.buildAsync(),
+				CACHE_NAME);
+	}
+
+	/**
+	 * Get square value from cache, or from loader (= call to delegate) if absent.
+	 * <br/>
+	 * Failed loads are not cached.
+	 *
+	 * @param value  to compute the square of
+	 * @param loader call to delegate, subscribed once per key with the Reactor Context of the first caller
+	 * @return square value
+	 */
+	public Mono<Double> get(Double value, Function<Double, Mono<Double>> loader) {
+		if (!this.enabled) {
+			return loader.apply(value);
+		}
+
+		// Current span is read from Reactor Context (no ThreadLocal restoration needed)
+		return Mono.deferContextual(contextView -> {
+			Span currentSpan = this.tracingService.currentSpan(contextView);
+			boolean[] loadedByThisRequest = {false};
+			return Mono.fromFuture(
+							() -> this.cache.get(value, (key, executor) -> {
+								loadedByThisRequest[0] = true;
+								return loader.apply(key)
+										// Keep observation & baggage of the calling request on delegate call
+										.contextWrite(contextView)
+										.map(squareValue -> new CachedSquare(squareValue, currentSpan != null ? currentSpan.context() : null))
+										.toFuture();
+							}),
+							// A cancelled request must not cancel the call shared with other requests
+							true)
+					.doOnNext(cachedSquare -> {
+						if (!loadedByThisRequest[0]) {
+							this.recordCacheHit(value, cachedSquare, currentSpan);
+						}
+					})
+					.map(CachedSquare::square);
+		});
+	}
+
+	private void recordCacheHit(Double value, CachedSquare cachedSquare, Span currentSpan) {
+		if (currentSpan == null) {
+			log.debug("No current span found, cache hit for {} is not traced", value);
+			return;
+		}
+
+		Span.Builder spanBuilder = this.tracingService.getOtelTracer().spanBuilder()
+				.name(CACHE_HIT_SPAN_NAME)
+				.setParent(currentSpan.context())
+				.tag("cache.name", CACHE_NAME)
+				.tag("value.from.cache", String.valueOf(cachedSquare.square()));
+		if (cachedSquare.origin() != null) {
+			// Link to the request which requested delegate for this value
+			spanBuilder.addLink(new Link(cachedSquare.origin()));
+		}
+		spanBuilder.start().end();
+	}
+
+	/**
+	 * @param square value computed by delegate
+	 * @param origin trace context of the request which called delegate (nullable)
+	 */
+	private record CachedSquare(Double square, TraceContext origin) {
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Last latencies of delegate calls (fixed size ring), percentiles are computed on a sorted snapshot refreshed every second
+ */
+class LatencyWindow {
+
+	private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final long[] latencies;
+	private final AtomicLong recorded = new AtomicLong();
+
+	private volatile Snapshot snapshot;
+
+	LatencyWindow(int size) {
+		this.latencies = new long[size];
+		this.snapshot = new Snapshot(System.nanoTime(), new long[0]);
+	}
+
+	void record(long latencyNanos) {
+		long index = this.recorded.getAndIncrement();
+		this.latencies[(int) (index % this.latencies.length)] = latencyNanos;
+	}
+
+	/**
+	 * Record a censored latency : call was cancelled after latencyNanos, its latency is at least this value.
+	 * <br/>
+	 * Percentiles below every censored latency are exact (only ranks above them would change), other values are lower bounds.
+	 */
+	void recordLowerBound(long latencyNanos) {
+		record(latencyNanos);
+	}
+
+	/**
+	 * @return latency at this percentile (0 < percentile < 1), -1 if less than minSamples latencies were recorded
+	 */
+	long percentile(double percentile, int minSamples) {
+		long[] sorted = snapshot().sortedLatencies();
+		if (sorted.length < minSamples) {
+			return -1;
+		}
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+	}
+
+	/**
+	 * @return mean of recorded latencies greater than latencyNanos (a lower bound if some are censored), -1 if there is none
+	 */
+	long meanAbove(long latencyNanos) {
+		long sum = 0;
+		int count = 0;
+		for (long latency : snapshot().sortedLatencies()) {
+			if (latency > latencyNanos) {
+				sum += latency;
+				count++;
+			}
+		}
+		return count == 0 ? -1 : sum / count;
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = this.snapshot;
+		long now = System.nanoTime();
+		if (now - current.takenAt() < SNAPSHOT_INTERVAL_NANOS) {
+			return current;
+		}
+
+		int size = (int) Math.min(this.recorded.get(), this.latencies.length);
+		long[] sorted = Arrays.copyOf(this.latencies, size);
+		Arrays.sort(sorted);
+		Snapshot taken = new Snapshot(now, sorted);
+		this.snapshot = taken;
+		return taken;
+	}
+
+	private record Snapshot(long takenAt, long[] sortedLatencies) {
+	}
+}
@@ -1,18 +1,38 @@
 package com.example.micrometer.tracing.reactor.front.service;
 
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
+import com.example.micrometer.tracing.reactor.support.observation.ChunkEvents;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import io.micrometer.common.docs.KeyName;
 import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
 import io.micrometer.tracing.contextpropagation.ObservationAwareBaggageThreadLocalAccessor;
 import io.micrometer.tracing.contextpropagation.reactor.ReactorBaggage;
+import io.micrometer.tracing.handler.TracingObservationHandler;
 import io.micrometer.tracing.otel.bridge.OtelTracer;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.stereotype.Service;
+import reactor.core.CoreSubscriber;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.SynchronousSink;
+import reactor.util.context.ContextView;
 
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @Getter
@@ -21,6 +41,10 @@ public class TracingService {
 
 	private final ObservationRegistry observationRegistry;
 	private final OtelTracer otelTracer;
+	@Getter(AccessLevel.NONE)
+	private final AtomicBoolean noCurrentObservationWarned = new AtomicBoolean();
+	@Getter(AccessLevel.NONE)
+	private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
 
 	public TracingService(ObservationRegistry observationRegistry,
 						  OtelTracer otelTracer) {
@@ -35,29 +59,208 @@ public class TracingService {
 		// ##############
 	}
 
+	/**
+	 * To declare observation on sequence with .tap(...) : observation is not created if current trace is not sampled
+	 */
+	public <T> SignalListenerFactory<T, ?> observation() {
+		return SampledObservation.observation(this.observationRegistry);
+	}
+
+	/**
+	 * Same as observation(), observation being created by observationSupplier (e.g. RequestValueObservation)
+	 */
+	public <T> SignalListenerFactory<T, ?> observation(Function<ObservationRegistry, Observation> observationSupplier) {
+		return SampledObservation.observation(this.observationRegistry, observationSupplier);
+	}
+
+	/**
+	 * Declared boundary where ThreadLocals (current observation/span, baggage, MDC) are restored from Reactor Context, to be used with .handle(...).
+	 * <br/>
+	 * With spring.reactor.context-propagation: limited (scoped mode), handle and tap are the only operators restoring ThreadLocals :
+	 * logging calls and TracingService methods reading current observation or baggage must be declared in such a boundary.
+	 *
+	 * @param action run with ThreadLocals restored, element is then emitted unchanged
+	 */
+	public <T> BiConsumer<T, SynchronousSink<T>> scoped(Consumer<T> action) {
+		return (element, sink) -> {
+			action.accept(element);
+			sink.next(element);
+		};
+	}
+
+	/**
+	 * Declared boundary where source is subscribed with ThreadLocals restored from Reactor Context (scoped mode, see scoped(Consumer)).
+	 * <br/>
+	 * Required by calls reading ThreadLocals on subscription, e.g. WebClient injects current baggage in request headers.
+	 */
+	public <T> Mono<T> scoped(Mono<T> source) {
+		return Mono.from(subscriber -> {
+			// Mono.from subscribes with a CoreSubscriber (returned as is), carrying the Reactor Context of downstream operators
+			CoreSubscriber<? super T> coreSubscriber = Operators.toCoreSubscriber(subscriber);
+			try (ContextSnapshot.Scope scope = this.contextSnapshotFactory.setThreadLocalsFrom(coreSubscriber.currentContext())) {
+				source.subscribe(coreSubscriber);
+			}
+		});
+	}
+
+	/**
+	 * Current observation read from Reactor Context (no ThreadLocal restoration), e.g. within Mono.deferContextual(...)
+	 *
+	 * @return current observation, or Observation.NOOP if none
+	 */
+	public Observation currentObservation(ContextView contextView) {
+		Observation observation = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+		return observation != null ? observation : Observation.NOOP;
+	}
+
+	/**
+	 * Span of current observation read from Reactor Context (no ThreadLocal restoration)
+	 *
+	 * @return current span, or null if none (no observation or trace not sampled)
+	 */
+	public Span currentSpan(ContextView contextView) {
+		TracingObservationHandler.TracingContext tracingContext = this.currentObservation(contextView).getContextView()
+				.get(TracingObservationHandler.TracingContext.class);
+		return tracingContext != null ? tracingContext.getSpan() : null;
+	}
+
 	public void addAttribute(String key, String value) {
 		this.getCurrentObservation().highCardinalityKeyValue(key, value);
 	}
 
+	/**
+	 * Prefer typed methods with KeyName on hot paths : no Map to build, no boxing
+	 */
 	public void addAttributes(Map<String, Object> attributes) {
 		attributes.forEach((s, o) -> this.addAttribute(s, String.valueOf(o)));
 	}
 
+	// Typed attributes : value is converted to String only if there is a current observation
+
+	public void addAttribute(KeyName key, String value) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key.asString(), value);
+		}
+	}
+
+	public void addAttribute(KeyName key, double value) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key.asString(), Double.toString(value));
+		}
+	}
+
+	public void addAttribute(KeyName key, long value) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key.asString(), Long.toString(value));
+		}
+	}
+
+	public void addAttribute(KeyName key, boolean value) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key.asString(), Boolean.toString(value));
+		}
+	}
+
+	public void addAttributes(KeyName key1, double value1,
+							  KeyName key2, double value2) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key1.asString(), Double.toString(value1))
+					.highCardinalityKeyValue(key2.asString(), Double.toString(value2));
+		}
+	}
+
+	public void addAttributes(KeyName key1, double value1,
+							  KeyName key2, double value2,
+							  KeyName key3, double value3) {
+		Observation observation = this.getCurrentObservation();
+		if (!observation.isNoop()) {
+			observation.highCardinalityKeyValue(key1.asString(), Double.toString(value1))
+					.highCardinalityKeyValue(key2.asString(), Double.toString(value2))
+					.highCardinalityKeyValue(key3.asString(), Double.toString(value3));
+		}
+	}
+
+	public void addEvent(String name, String contextualName) {
+		this.getCurrentObservation().event(Observation.Event.of(name, contextualName));
+	}
+
+	/**
+	 * Add an event to current observation each time chunkSize elements are emitted (+ 1 event for last incomplete chunk)
+	 * and add count of elements as attribute on completion (cf ChunkEvents, shared with delegate).
+	 * <br/>
+	 * Must be declared before .tap(observation()) : a long sequence generates a single span with events instead of a span per element.
+	 *
+	 * @param flux      sequence of elements
+	 * @param eventName name of chunk events
+	 * @param chunkSize number of elements per chunk
+	 * @param countKey  attribute set to the number of elements
+	 * @return sequence of elements
+	 */
+	public <T> Flux<T> addChunkEvents(Flux<T> flux, String eventName, int chunkSize, String countKey) {
+		return ChunkEvents.addChunkEvents(flux, eventName, chunkSize, countKey);
+	}
+
 	public <T> Mono<T> addBaggage(T valueToReturn, String key, String value) {
 		// Check https://github.com/micrometer-metrics/tracing/issues/959#issuecomment-2706448262 for explanations
 		return Mono.just(valueToReturn)
 				.contextWrite(ReactorBaggage.append(key, value));
 	}
 
+	/**
+	 * @return current observation, or Observation.NOOP if none (warning is logged only once, then at debug level)
+	 */
 	public Observation getCurrentObservation() {
-		return Optional.ofNullable(this.observationRegistry.getCurrentObservation())
-				.orElseGet(() -> {
-					log.warn("No current observation found");
-					return Observation.NOOP;
-				});
+		Observation observation = this.observationRegistry.getCurrentObservation();
+		if (observation != null) {
+			return observation;
+		}
+
+		if (!this.noCurrentObservationWarned.get() && this.noCurrentObservationWarned.compareAndSet(false, true)) {
+			log.warn("No current observation found (next occurrences are logged at debug level)");
+		} else if (log.isDebugEnabled()) {
+			log.debug("No current observation found");
+		}
+		return Observation.NOOP;
 	}
 
+	/**
+	 * @return current baggage entries (immutable view read from OpenTelemetry Baggage, lighter than OtelTracer.getAllBaggage()),
+	 * built once per baggage of the current observation
+	 */
+	public Map<String, String> getCurrentBaggage() {
+		return BaggageView.current(this.observationRegistry.getCurrentObservation());
+	}
+
+	/**
+	 * Debug level : baggage is rendered only for requests flagged by BaggageDebugTurboFilter (cf tracing.debug-logging)
+	 */
 	public void logCurrentBaggage() {
-		log.info("Current Baggage = {}", this.otelTracer.getAllBaggage());
+		if (log.isDebugEnabled()) {
+			log.debug("Current Baggage = {}", getCurrentBaggage());
+		}
+	}
+
+	/**
+	 * Callback of WebClient .httpRequest(...) logging request headers at debug level (e.g. for debug requests only, cf tracing.debug-logging).
+	 * <br/>
+	 * Headers are written outside of any ThreadLocal restoring operator : must be created on subscription with ThreadLocals restored
+	 * (within scoped(Mono.defer(...))), level is checked and ThreadLocals (MDC, baggage) are captured only then.
+	 */
+	public Consumer<ClientHttpRequest> debugRequestHeaders(String message) {
+		if (!log.isDebugEnabled()) {
+			return clientHttpRequest -> {
+			};
+		}
+		ContextSnapshot contextSnapshot = this.contextSnapshotFactory.captureAll();
+		return clientHttpRequest -> {
+			try (ContextSnapshot.Scope scope = contextSnapshot.setThreadLocals()) {
+				log.debug(message, clientHttpRequest.getHeaders());
+			}
+		};
 	}
 }
@@ -0,0 +1,84 @@
+package com.example.micrometer.tracing.reactor.front;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trace context and baggage received by front reach delegate (stub server recording request headers).
+ * <br/>
+ * Also run with Spring AOT generated initializers by aotTest (-Dspring.aot.enabled=true).
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"management.otlp.tracing.export.enabled=false",
+		"tracing.debug-logging.sample-rate=0"})
+class DelegatePropagationTest {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+	private static final String BAGGAGE_ENTRY = "user=propagation-check";
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void delegate(DynamicPropertyRegistry registry) {
+		registry.add("front.delegate.client.base-urls", StubDelegate::url);
+		registry.add("tracing.baggage-propagation.destinations[0].name", () -> "delegate");
+		registry.add("tracing.baggage-propagation.destinations[0].url-prefix", StubDelegate::url);
+		registry.add("tracing.baggage-propagation.destinations[0].allowed-fields", () -> "user");
+	}
+
+	@Test
+	void propagatesTraceAndBaggageToDelegate() {
+		WebTestClient.bindToServer()
+				.baseUrl("http://localhost:" + this.port)
+				.build()
+				.get()
+				.uri("/v3/calculator/square?value=3")
+				.header("traceparent", "00-" + TRACE_ID + "-b7ad6b7169203331-01")
+				.header("baggage", BAGGAGE_ENTRY)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(Double.class).isEqualTo(9.0);
+
+		assertThat(StubDelegate.REQUESTS).isNotEmpty().allSatisfy(headers -> {
+			assertThat(headers.get("traceparent")).startsWith("00-" + TRACE_ID + "-");
+			assertThat(headers.get("baggage")).contains(BAGGAGE_ENTRY);
+		});
+	}
+
+	/**
+	 * Started on first use : property suppliers are only called once the application context is created
+	 */
+	private static final class StubDelegate {
+
+		private static final List<HttpHeaders> REQUESTS = new CopyOnWriteArrayList<>();
+		private static final DisposableServer SERVER = HttpServer.create()
+				.port(0)
+				.route(routes -> routes.get("/delegate/v2/calculator/square", (request, response) -> {
+					REQUESTS.add(request.requestHeaders().copy());
+					return response.header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+							.sendString(Mono.just("9.0"));
+				}))
+				.bindNow();
+
+		static String url() {
+			return "http://localhost:" + SERVER.port();
+		}
+	}
+}
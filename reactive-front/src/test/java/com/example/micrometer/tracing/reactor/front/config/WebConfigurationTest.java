@@ -0,0 +1,47 @@
+package com.example.micrometer.tracing.reactor.front.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebConfigurationTest {
+
+	@Test
+	void customizerFiltersSeeRoundRobinUrl() {
+		DelegateClientProperties delegateClientProperties = new Binder(new MapConfigurationPropertySource(Map.of(
+				"front.delegate.client.base-urls", "http://delegate-1:8080,http://delegate-2:8080")))
+				.bindOrCreate("front.delegate.client", DelegateClientProperties.class);
+		// Filter added by a WebClientCustomizer (e.g. OutboundBaggageFilter) before WebConfiguration adds its own
+		List<URI> filteredUrls = new CopyOnWriteArrayList<>();
+		WebClient.Builder webClientBuilder = WebClient.builder()
+				.filter((request, next) -> {
+					filteredUrls.add(request.url());
+					return next.exchange(request);
+				});
+		ConnectionProvider connectionProvider = ConnectionProvider.newConnection();
+
+		WebClient webClient = new WebConfiguration(webClientBuilder).webClientToDelegate(delegateClientProperties, connectionProvider)
+				.mutate()
+				.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+				.build();
+		for (int i = 0; i < 2; i++) {
+			webClient.get().uri("/square?value=2").retrieve().toBodilessEntity().block();
+		}
+
+		assertThat(filteredUrls).containsExactly(
+				URI.create("http://delegate-1:8080/square?value=2"),
+				URI.create("http://delegate-2:8080/square?value=2"));
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.micrometer.tracing.reactor.front.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hedged V3 calls : first attempt to delegate streams its body slowly, hedge attempt wins and first attempt is cancelled
+ * once its response is received, without any dropped error (the release of a cancelled body is racy : several calls are sent).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"front.delegate.hedge.enabled=true",
+		"front.delegate.hedge.delay=50ms",
+		"management.otlp.tracing.export.enabled=false"})
+class HedgedSquareTest {
+
+	private static final int CALLS = 20;
+
+	private final List<Throwable> droppedErrors = new CopyOnWriteArrayList<>();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void delegate(DynamicPropertyRegistry registry) {
+		registry.add("front.delegate.client.base-urls", SlowDelegate::url);
+	}
+
+	@BeforeEach
+	void captureDroppedErrors() {
+		Hooks.onErrorDropped(this.droppedErrors::add);
+	}
+
+	@AfterEach
+	void resetDroppedErrors() {
+		Hooks.resetOnErrorDropped();
+	}
+
+	@Test
+	void cancelsFirstAttemptReadingItsBody() {
+		WebTestClient webTestClient = WebTestClient.bindToServer()
+				.baseUrl("http://localhost:" + this.port)
+				.build();
+		for (int i = 0; i < CALLS; i++) {
+			webTestClient.get()
+					.uri("/v3/calculator/square?value=3")
+					.exchange()
+					.expectStatus().isOk()
+					.expectBody(Double.class).isEqualTo(9.0);
+		}
+
+		// Last chunk of first attempts would have been sent 1s after their first chunk
+		Mono.delay(Duration.ofMillis(1500)).block();
+		assertThat(SlowDelegate.REQUESTS).hasValue(2 * CALLS);
+		assertThat(this.droppedErrors).isEmpty();
+	}
+
+	/**
+	 * Odd requests (first attempts) : headers and first body chunk, last chunk 1s later. Even requests (hedge attempts) : immediate response.
+	 */
+	private static final class SlowDelegate {
+
+		private static final AtomicInteger REQUESTS = new AtomicInteger();
+		private static final DisposableServer SERVER = HttpServer.create()
+				.port(0)
+				.route(routes -> routes.get("/delegate/v2/calculator/square", (request, response) -> {
+					Flux<String> body = REQUESTS.incrementAndGet() % 2 == 1
+							? Flux.concat(Mono.just("9"), Mono.just(".0").delayElement(Duration.ofSeconds(1)))
+							: Flux.just("9.0");
+					return response.header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+							.header("Transfer-Encoding", "chunked")
+							.sendString(body);
+				}))
+				.bindNow();
+
+		static String url() {
+			return "http://localhost:" + SERVER.port();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DelegateHedgerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DelegateHedger delegateHedger = new DelegateHedger(ObservationRegistry.create(),
+			new DelegateProperties(
+					new DelegateProperties.Cache(false, 0, Duration.ZERO),
+					new DelegateProperties.Batch(false, 1, Duration.ZERO, 1, 1),
+					new DelegateProperties.Hedge(true, Duration.ofMillis(20), 0, Duration.ofMillis(5))),
+			this.meterRegistry);
+
+	@Test
+	void hedgeAttemptWinsAndCancelsFirstAttempt() {
+		AtomicBoolean firstAttemptCancelled = new AtomicBoolean();
+		Function<Double, Mono<Double>> delegateCall = attempts(
+				Mono.delay(Duration.ofSeconds(5)).map(tick -> 1.0).doOnCancel(() -> firstAttemptCancelled.set(true)),
+				Mono.just(9.0));
+
+		StepVerifier.create(this.delegateHedger.call(3.0, delegateCall))
+				.expectNext(9.0)
+				.verifyComplete();
+
+		assertThat(firstAttemptCancelled).isTrue();
+		assertThat(this.meterRegistry.get("delegate.hedge.calls").tag("hedged", "true").counter().count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("delegate.hedge.latency").tag("winner", "hedge").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void firstAttemptWinsBeforeDelay() {
+		AtomicInteger attempts = new AtomicInteger();
+		Function<Double, Mono<Double>> delegateCall = value -> {
+			attempts.incrementAndGet();
+			return Mono.just(value * value);
+		};
+
+		StepVerifier.create(this.delegateHedger.call(3.0, delegateCall))
+				.expectNext(9.0)
+				.verifyComplete();
+
+		assertThat(attempts).hasValue(1);
+		assertThat(this.meterRegistry.get("delegate.hedge.calls").tag("hedged", "false").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void firstAttemptWinsAndCancelsHedgeAttempt() {
+		AtomicBoolean hedgeAttemptCancelled = new AtomicBoolean();
+		Function<Double, Mono<Double>> delegateCall = attempts(
+				Mono.delay(Duration.ofMillis(100)).map(tick -> 9.0),
+				Mono.delay(Duration.ofSeconds(5)).map(tick -> 1.0).doOnCancel(() -> hedgeAttemptCancelled.set(true)));
+
+		StepVerifier.create(this.delegateHedger.call(3.0, delegateCall))
+				.expectNext(9.0)
+				.verifyComplete();
+
+		assertThat(hedgeAttemptCancelled).isTrue();
+		assertThat(this.meterRegistry.get("delegate.hedge.latency").tag("winner", "primary").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void bothAttemptsFailWithFirstAttemptError() {
+		IllegalStateException firstError = new IllegalStateException("first");
+		Function<Double, Mono<Double>> delegateCall = attempts(
+				Mono.delay(Duration.ofMillis(50)).then(Mono.error(firstError)),
+				Mono.error(new IllegalStateException("hedge")));
+
+		StepVerifier.create(this.delegateHedger.call(3.0, delegateCall))
+				.expectErrorMatches(error -> error == firstError)
+				.verify();
+	}
+
+	@Test
+	void callCancelledCancelsBothAttempts() {
+		AtomicInteger cancelledAttempts = new AtomicInteger();
+		Mono<Double> slowAttempt = Mono.delay(Duration.ofSeconds(5)).map(tick -> 1.0).doOnCancel(cancelledAttempts::incrementAndGet);
+
+		StepVerifier.create(this.delegateHedger.call(3.0, attempts(slowAttempt, slowAttempt)))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(100))
+				.thenCancel()
+				.verify();
+
+		assertThat(cancelledAttempts).hasValue(2);
+	}
+
+	/**
+	 * @return delegate call returning first Mono for the first attempt, second Mono for the hedge attempt
+	 */
+	private static Function<Double, Mono<Double>> attempts(Mono<Double> firstAttempt, Mono<Double> hedgeAttempt) {
+		AtomicInteger attempts = new AtomicInteger();
+		return value -> attempts.incrementAndGet() == 1 ? firstAttempt : hedgeAttempt;
+	}
+}
@@ -0,0 +1,231 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import com.example.micrometer.tracing.reactor.front.config.DelegateProperties;
+import com.example.micrometer.tracing.reactor.support.export.InMemorySpanExporter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DelegateSquareBatcherTest {
+
+	private static final Duration LONG_WINDOW = Duration.ofSeconds(10);
+	private static final Function<Double, Mono<Double>> UNBATCHED_CALL = value -> Mono.error(new IllegalStateException("Not batched"));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InMemorySpanExporter spanExporter = new InMemorySpanExporter(100);
+	private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+			.setSampler(Sampler.alwaysOn())
+			.addSpanProcessor(SimpleSpanProcessor.create(this.spanExporter))
+			.build();
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+	private final TracingService tracingService;
+	private final List<DelegateSquareBatcher> batchers = new ArrayList<>();
+
+	DelegateSquareBatcherTest() {
+		OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+		OtelTracer otelTracer = new OtelTracer(this.tracerProvider.get("batcher"), currentTraceContext, event -> {
+		}, new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+		this.observationRegistry.observationConfig().observationHandler(new DefaultTracingObservationHandler(otelTracer));
+		this.tracingService = new TracingService(this.observationRegistry, otelTracer);
+	}
+
+	@AfterEach
+	void close() {
+		this.batchers.forEach(DelegateSquareBatcher::destroy);
+		this.tracerProvider.close();
+	}
+
+	@Test
+	void batchSentWhenMaxSizeReached() {
+		DelegateSquareBatcher batcher = batcher(2, LONG_WINDOW, 100, null);
+
+		StepVerifier.create(Flux.merge(compute(batcher, 3.0), compute(batcher, 4.0)).collectList())
+				.assertNext(squareValues -> assertThat(squareValues).containsExactlyInAnyOrder(9.0, 16.0))
+				.expectComplete()
+				// Well before the window
+				.verify(Duration.ofSeconds(5));
+
+		assertBatches(1, 2);
+	}
+
+	@Test
+	void batchSentWhenWindowElapsed() {
+		DelegateSquareBatcher batcher = batcher(100, Duration.ofMillis(100), 100, null);
+
+		long startNanos = System.nanoTime();
+		StepVerifier.create(Flux.merge(compute(batcher, 3.0), compute(batcher, 4.0), compute(batcher, 5.0)).collectList())
+				.assertNext(squareValues -> assertThat(squareValues).containsExactlyInAnyOrder(9.0, 16.0, 25.0))
+				.verifyComplete();
+
+		assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+		assertBatches(1, 3);
+	}
+
+	@Test
+	void resultDispatchedToEachWaitingRequest() {
+		DelegateSquareBatcher batcher = batcher(3, LONG_WINDOW, 100, null);
+
+		// Each request gets the square of its own value
+		StepVerifier.create(Flux.merge(
+						compute(batcher, 2.0).map(squareValue -> "2=" + squareValue),
+						compute(batcher, 3.0).map(squareValue -> "3=" + squareValue),
+						compute(batcher, 4.0).map(squareValue -> "4=" + squareValue))
+						.collectList())
+				.assertNext(results -> assertThat(results).containsExactlyInAnyOrder("2=4.0", "3=9.0", "4=16.0"))
+				.verifyComplete();
+	}
+
+	@Test
+	void errorDispatchedToEachWaitingRequest() {
+		DelegateSquareBatcher batcher = batcher(2, LONG_WINDOW, 100, null);
+
+		// Negative value : delegate stub fails the whole batch
+		Mono<Throwable> firstError = compute(batcher, 3.0).then(Mono.<Throwable>empty()).onErrorResume(Mono::just);
+		Mono<Throwable> secondError = compute(batcher, -1.0).then(Mono.<Throwable>empty()).onErrorResume(Mono::just);
+
+		StepVerifier.create(Flux.merge(firstError, secondError).collectList())
+				.assertNext(errors -> assertThat(errors)
+						.hasSize(2)
+						.allMatch(WebClientResponseException.InternalServerError.class::isInstance))
+				.verifyComplete();
+	}
+
+	@Test
+	void valuesAboveMaxPendingRejected() {
+		DelegateSquareBatcher batcher = batcher(100, LONG_WINDOW, 2, null);
+		compute(batcher, 1.0).subscribe();
+		compute(batcher, 2.0).subscribe();
+
+		StepVerifier.create(compute(batcher, 3.0))
+				.expectErrorSatisfies(error -> assertThat(error)
+						.isInstanceOfSatisfying(ResponseStatusException.class, statusException ->
+								assertThat(statusException.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)))
+				.verify();
+	}
+
+	@Test
+	void batchSpanAndRequestSpansLinked() {
+		DelegateSquareBatcher batcher = batcher(2, LONG_WINDOW, 100, null);
+		Observation firstRequest = Observation.start("request", this.observationRegistry);
+		Observation secondRequest = Observation.start("request", this.observationRegistry);
+
+		StepVerifier.create(Flux.merge(compute(batcher, 3.0, firstRequest), compute(batcher, 4.0, secondRequest)).collectList())
+				.expectNextCount(1)
+				.verifyComplete();
+		firstRequest.stop();
+		secondRequest.stop();
+
+		List<SpanData> spans = this.spanExporter.getFinishedSpans();
+		// Span name of computeSquare-batch observation
+		SpanData batchSpan = spans.stream().filter(span -> span.getName().equals("compute-square-batch")).findFirst().orElseThrow();
+		List<SpanData> requestSpans = spans.stream().filter(span -> span.getName().equals("request")).toList();
+		assertThat(requestSpans).hasSize(2);
+		// Child of the first sampled request
+		assertThat(batchSpan.getParentSpanId()).isIn(requestSpans.stream().map(SpanData::getSpanId).toList());
+		assertThat(batchSpan.getLinks()).map(LinkData::getSpanContext)
+				.containsExactlyInAnyOrderElementsOf(requestSpans.stream().map(SpanData::getSpanContext).toList());
+		assertThat(requestSpans).allSatisfy(requestSpan -> assertThat(requestSpan.getLinks()).map(LinkData::getSpanContext)
+				.containsExactly(batchSpan.getSpanContext()));
+	}
+
+	@Test
+	void batchSentOverRSocketWhenEnabled() {
+		DelegateRSocketClient delegateRSocketClient = mock(DelegateRSocketClient.class);
+		when(delegateRSocketClient.getSquares(any())).thenAnswer(invocation ->
+				invocation.<Flux<Double>>getArgument(0).map(value -> value * value));
+		DelegateSquareBatcher batcher = batcher(2, LONG_WINDOW, 100, delegateRSocketClient);
+
+		StepVerifier.create(Flux.merge(compute(batcher, 3.0), compute(batcher, 4.0)).collectList())
+				.assertNext(squareValues -> assertThat(squareValues).containsExactlyInAnyOrder(9.0, 16.0))
+				.verifyComplete();
+
+		verify(delegateRSocketClient).getSquares(any());
+		assertBatches(1, 2);
+	}
+
+	private DelegateSquareBatcher batcher(int maxSize, Duration window, int maxPending, DelegateRSocketClient delegateRSocketClient) {
+		DelegateProperties delegateProperties = new DelegateProperties(
+				new DelegateProperties.Cache(false, 0, Duration.ZERO),
+				new DelegateProperties.Batch(true, maxSize, window, 4, maxPending),
+				new DelegateProperties.Hedge(false, Duration.ZERO, 0, Duration.ZERO));
+		DelegateSquareBatcher batcher = new DelegateSquareBatcher(WebClient.create(SquaresDelegate.url()), delegateProperties,
+				this.tracingService, this.meterRegistry, delegateRSocketClient);
+		this.batchers.add(batcher);
+		return batcher;
+	}
+
+	private static Mono<Double> compute(DelegateSquareBatcher batcher, double value) {
+		return batcher.compute(value, UNBATCHED_CALL);
+	}
+
+	private static Mono<Double> compute(DelegateSquareBatcher batcher, double value, Observation requestObservation) {
+		return batcher.compute(value, UNBATCHED_CALL)
+				.contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, requestObservation));
+	}
+
+	private void assertBatches(long batches, double maxValues) {
+		DistributionSummary batchSize = this.meterRegistry.get("delegate.batch.size").summary();
+		assertThat(batchSize.count()).isEqualTo(batches);
+		assertThat(batchSize.max()).isEqualTo(maxValues);
+	}
+
+	/**
+	 * POST /delegate/v2/calculator/squares : NDJSON squares of NDJSON values, 500 if a value is negative
+	 */
+	private static final class SquaresDelegate {
+
+		private static final DisposableServer SERVER = HttpServer.create()
+				.port(0)
+				.route(routes -> routes.post(DelegateSquareBatcher.DELEGATE_BATCH_ENDPOINT, (request, response) ->
+						request.receive().aggregate().asString().flatMap(body -> {
+							List<Double> values = Arrays.stream(body.split("\n")).map(Double::valueOf).toList();
+							if (values.stream().anyMatch(value -> value < 0)) {
+								return response.status(500).send().then();
+							}
+							return response.header("Content-Type", MediaType.APPLICATION_NDJSON_VALUE)
+									.sendString(Mono.just(values.stream().map(value -> value * value + "\n").collect(Collectors.joining())))
+									.then();
+						})))
+				.bindNow();
+
+		static String url() {
+			return "http://localhost:" + SERVER.port();
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.micrometer.tracing.reactor.front.service;
+
+import io.micrometer.tracing.TraceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scoped mode (spring.reactor.context-propagation: limited) : MDC correlation is restored in TracingService.scoped boundaries only
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.reactor.context-propagation=limited",
+		"management.otlp.tracing.export.enabled=false"})
+@ExtendWith(OutputCaptureExtension.class)
+class TracingServiceScopedTest {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+	@Autowired
+	private TracingService tracingService;
+
+	@LocalServerPort
+	private int port;
+
+	@BeforeAll
+	static void limitedContextPropagation() {
+		// Hooks are global : automatic propagation may have been enabled by another application context of the test JVM
+		Hooks.disableAutomaticContextPropagation();
+	}
+
+	@Test
+	void restoresMdcInScopedBoundaries() {
+		AtomicReference<String> inHandle = new AtomicReference<>();
+		AtomicReference<String> outsideBoundary = new AtomicReference<>();
+
+		Mono<String> scopedSubscription = this.tracingService.scoped(Mono.fromSupplier(TracingServiceScopedTest::mdcCorrelation));
+		Mono<String> expectedCorrelation = Mono.deferContextual(contextView -> {
+			TraceContext traceContext = this.tracingService.currentSpan(contextView).context();
+			return Mono.just(traceContext.traceId() + "-" + traceContext.spanId());
+		});
+		Mono<String> mono = expectedCorrelation
+				.handle(this.tracingService.scoped(correlation -> inHandle.set(mdcCorrelation())))
+				.doOnNext(correlation -> outsideBoundary.set(mdcCorrelation()))
+				.flatMap(correlation -> scopedSubscription.map(subscribed -> correlation + "|" + subscribed))
+				.name("scoped-test")
+				.tap(this.tracingService.observation());
+
+		StepVerifier.create(mono)
+				.assertNext(correlations -> {
+					String expected = correlations.substring(0, correlations.indexOf('|'));
+					assertThat(expected).doesNotContain("null");
+					assertThat(inHandle.get()).isEqualTo(expected);
+					assertThat(correlations.substring(correlations.indexOf('|') + 1)).isEqualTo(expected);
+					// doOnNext does not restore ThreadLocals in scoped mode
+					assertThat(outsideBoundary.get()).isEqualTo("null-null");
+				})
+				.verifyComplete();
+		assertThat(MDC.get("traceId")).isNull();
+	}
+
+	@Test
+	void correlatesControllerV3Logs(CapturedOutput output) {
+		// Not the auto-configured WebTestClient : its client observation would replace traceparent header
+		WebTestClient.bindToServer()
+				.baseUrl("http://localhost:" + this.port)
+				.build()
+				.get()
+				.uri("/v3/calculator/square-of-two")
+				.header("traceparent", "00-" + TRACE_ID + "-b7ad6b7169203331-01")
+				// Baggage is logged at debug level : flagged request (cf tracing.debug-logging)
+				.header("baggage", "debug=true")
+				.exchange()
+				.expectStatus().isOk();
+
+		assertThat(output.getOut().lines().filter(line -> line.contains("Current Baggage")))
+				.hasSize(2)
+				.allMatch(line -> line.contains(TRACE_ID));
+	}
+
+	private static String mdcCorrelation() {
+		return MDC.get("traceId") + "-" + MDC.get("spanId");
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.micrometer.tracing.reactor.support.aot;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Native image hints of the tracing stack (Spring AOT, registered in META-INF/spring/aot.factories).
+ * <br/>
+ * Micrometer/OTel bridge, ObservationAwareBaggageThreadLocalAccessor and ReactorNettyTracingObservationHandler are created with new
+ * and called through interfaces (no reflection). What is resolved at runtime are the ServiceLoader providers of :
+ * <ul>
+ *     <li>ContextRegistry : ThreadLocal accessors (current observation) and context accessors (Reactor Context) of automatic context-propagation</li>
+ *     <li>OpenTelemetry : context storage, OTLP exporter HTTP/gRPC senders and compressors</li>
+ * </ul>
+ * Providers found on the classpath at build time are registered with their services file.
+ */
+public class TracingRuntimeHints implements RuntimeHintsRegistrar {
+
+	private static final String SERVICES_LOCATION = "META-INF/services/";
+	private static final List<String> SERVICES = List.of(
+			"io.micrometer.context.ThreadLocalAccessor",
+			"io.micrometer.context.ContextAccessor",
+			"io.opentelemetry.context.ContextStorageProvider",
+			"io.opentelemetry.exporter.internal.http.HttpSenderProvider",
+			"io.opentelemetry.exporter.internal.grpc.GrpcSenderProvider",
+			"io.opentelemetry.exporter.internal.compression.CompressorProvider");
+
+	@Override
+	public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+		PathMatchingResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver(classLoader);
+		for (String service : SERVICES) {
+			if (!ClassUtils.isPresent(service, classLoader)) {
+				continue;
+			}
+			hints.resources().registerPattern(SERVICES_LOCATION + service);
+			try {
+				for (Resource servicesFile : resourceResolver.getResources("classpath*:" + SERVICES_LOCATION + service)) {
+					providers(servicesFile).forEach(provider -> hints.reflection()
+							.registerTypeIfPresent(classLoader, provider, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * @return class names of a services file (comments and blank lines ignored)
+	 */
+	private static List<String> providers(Resource servicesFile) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(servicesFile.getInputStream(), StandardCharsets.UTF_8))) {
+			return reader.lines()
+					.map(line -> line.replaceFirst("#.*", "").trim())
+					.filter(line -> !line.isEmpty())
+					.toList();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.micrometer.tracing.reactor.support.baggage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Outbound baggage propagation policy (tracing.baggage-propagation properties), applied to every WebClient built from Spring Boot WebClient.Builder
+ */
+@AutoConfiguration(after = OpenTelemetryTracingAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "tracing.baggage-propagation", name = "enabled")
+@EnableConfigurationProperties(BaggagePropagationProperties.class)
+public class BaggagePropagationAutoConfiguration {
+
+	@Bean
+	public OutboundBaggageFilter outboundBaggageFilter(BaggagePropagationProperties baggagePropagationProperties,
+													   ContextPropagators contextPropagators,
+													   MeterRegistry meterRegistry) {
+		return new OutboundBaggageFilter(baggagePropagationProperties, contextPropagators.getTextMapPropagator().fields(), meterRegistry);
+	}
+
+	@Bean
+	public WebClientCustomizer outboundBaggageWebClientCustomizer(OutboundBaggageFilter outboundBaggageFilter) {
+		return webClientBuilder -> webClientBuilder.filter(outboundBaggageFilter);
+	}
+}
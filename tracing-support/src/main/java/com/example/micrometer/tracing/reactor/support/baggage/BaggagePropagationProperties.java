@@ -0,0 +1,34 @@
+package com.example.micrometer.tracing.reactor.support.baggage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outbound baggage propagation policy of WebClient requests (tracing.baggage-propagation properties)
+ *
+ * @param enabled              apply the policy to requests sent by WebClient
+ * @param maxHeaderBytes       budget of the baggage header, lowest priority entries are dropped above
+ * @param localFields          baggage fields never sent to another process
+ * @param defaultAllowedFields fields sent to a destination without specific allowlist, by priority (empty = every non local field, by name)
+ * @param destinations         destinations with a specific allowlist, first matching URL prefix wins
+ */
+@ConfigurationProperties("tracing.baggage-propagation")
+public record BaggagePropagationProperties(@DefaultValue("false") boolean enabled,
+										   @DefaultValue("512") int maxHeaderBytes,
+										   @DefaultValue Set<String> localFields,
+										   @DefaultValue List<String> defaultAllowedFields,
+										   @DefaultValue List<Destination> destinations) {
+
+	/**
+	 * @param name          destination tag of metrics
+	 * @param urlPrefix     requests whose URL starts with this prefix (e.g. http://localhost:11012)
+	 * @param allowedFields fields sent to this destination, by priority (empty = every non local field, by name)
+	 */
+	public record Destination(String name,
+							  String urlPrefix,
+							  @DefaultValue List<String> allowedFields) {
+	}
+}
@@ -0,0 +1,246 @@
+package com.example.micrometer.tracing.reactor.support.baggage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the outbound baggage policy to the propagation headers injected by the client observation :
+ * <ul>
+ *     <li>local fields are removed (baggage header entries and remote field headers)</li>
+ *     <li>fields not allowed for the destination are removed</li>
+ *     <li>above maxHeaderBytes, lowest priority entries are dropped (priority = allowlist order, then field name)</li>
+ * </ul>
+ * Request is rebuilt only when baggage header is modified. The same policy is applied to RSocket metadata (apply(url, headers)).
+ * <br/>
+ * Metrics : tracing.propagation.header.bytes (propagation headers sent per request), tracing.baggage.dropped (reason = local/not-allowed/budget),
+ * both tagged with destination
+ */
+@Slf4j
+public class OutboundBaggageFilter implements ExchangeFilterFunction {
+
+	static final String BAGGAGE_HEADER = "baggage";
+
+	private static final String OTHER_DESTINATION = "other";
+	private static final Comparator<Entry> PRIORITY_ORDER = Comparator.comparingInt(Entry::priority).thenComparing(Entry::key);
+
+	private final int maxHeaderBytes;
+	private final Set<String> localFields;
+	private final List<String> propagationHeaders;
+	private final List<DestinationPolicy> destinationPolicies;
+	private final DestinationPolicy otherDestinationPolicy;
+
+	/**
+	 * @param propagationHeaders headers written by propagators (TextMapPropagator.fields()), measured by tracing.propagation.header.bytes
+	 */
+	public OutboundBaggageFilter(BaggagePropagationProperties properties, Collection<String> propagationHeaders, MeterRegistry meterRegistry) {
+		this.maxHeaderBytes = properties.maxHeaderBytes();
+		this.localFields = Set.copyOf(properties.localFields());
+		this.propagationHeaders = List.copyOf(propagationHeaders);
+		this.destinationPolicies = properties.destinations().stream()
+				.map(destination -> new DestinationPolicy(destination.name(), destination.urlPrefix(), destination.allowedFields(), meterRegistry))
+				.toList();
+		this.otherDestinationPolicy = new DestinationPolicy(OTHER_DESTINATION, "", properties.defaultAllowedFields(), meterRegistry);
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		HttpHeaders headers = request.headers();
+		HttpHeaders outboundHeaders = apply(request.url().toString(), headers);
+		ClientRequest outboundRequest = outboundHeaders == headers
+				? request
+				: ClientRequest.from(request)
+				.headers(requestHeaders -> {
+					requestHeaders.clear();
+					requestHeaders.addAll(outboundHeaders);
+				})
+				.build();
+		return next.exchange(outboundRequest);
+	}
+
+	/**
+	 * Applies the policy of the destination to propagation headers (WebClient request headers, RSocket metadata)
+	 *
+	 * @param url destination URL, matched against destination URL prefixes
+	 * @return headers to send (same instance when unchanged)
+	 */
+	public HttpHeaders apply(String url, HttpHeaders headers) {
+		DestinationPolicy destinationPolicy = destinationPolicy(url);
+
+		List<String> localFieldHeaders = this.localFields.stream().filter(headers::containsKey).toList();
+		List<String> baggageValues = headers.get(BAGGAGE_HEADER);
+		String baggage = baggageValues == null ? null : apply(destinationPolicy, baggageValues);
+
+		HttpHeaders outboundHeaders = headers;
+		if (!localFieldHeaders.isEmpty() || baggage != null) {
+			outboundHeaders = new HttpHeaders();
+			outboundHeaders.addAll(headers);
+			localFieldHeaders.forEach(outboundHeaders::remove);
+			if (baggage != null) {
+				if (baggage.isEmpty()) {
+					outboundHeaders.remove(BAGGAGE_HEADER);
+				} else {
+					outboundHeaders.set(BAGGAGE_HEADER, baggage);
+				}
+			}
+			destinationPolicy.droppedLocal.increment(localFieldHeaders.size());
+		}
+
+		destinationPolicy.headerBytes.record(propagationHeaderBytes(outboundHeaders));
+		return outboundHeaders;
+	}
+
+	/**
+	 * @return new baggage header value ("" = no entry left), null if unchanged
+	 */
+	private String apply(DestinationPolicy destinationPolicy, List<String> baggageValues) {
+		List<Entry> entries = new ArrayList<>();
+		boolean changed = baggageValues.size() > 1;
+		for (String baggageValue : baggageValues) {
+			for (String member : baggageValue.split(",")) {
+				String trimmedMember = member.trim();
+				if (trimmedMember.isEmpty()) {
+					continue;
+				}
+				int separatorIndex = trimmedMember.indexOf('=');
+				String key = (separatorIndex < 0 ? trimmedMember : trimmedMember.substring(0, separatorIndex)).trim();
+				if (this.localFields.contains(key)) {
+					destinationPolicy.droppedLocal.increment();
+					changed = true;
+				} else if (!destinationPolicy.allows(key)) {
+					destinationPolicy.droppedNotAllowed.increment();
+					changed = true;
+				} else {
+					entries.add(new Entry(key, trimmedMember, destinationPolicy.priority(key)));
+				}
+			}
+		}
+
+		// Members are ASCII (W3C baggage values are percent-encoded) : 1 char = 1 byte
+		int headerBytes = entries.isEmpty() ? 0 : entries.size() - 1;
+		for (Entry entry : entries) {
+			headerBytes += entry.member().length();
+		}
+		if (headerBytes > this.maxHeaderBytes) {
+			entries.sort(PRIORITY_ORDER);
+			int keptBytes = 0;
+			int keptEntries = 0;
+			for (Entry entry : entries) {
+				int entryBytes = entry.member().length() + (keptEntries == 0 ? 0 : 1);
+				if (keptBytes + entryBytes > this.maxHeaderBytes) {
+					break;
+				}
+				keptBytes += entryBytes;
+				keptEntries++;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug("Baggage header to {} is {} bytes (budget = {}), dropped fields : {}", destinationPolicy.name, headerBytes, this.maxHeaderBytes,
+						entries.subList(keptEntries, entries.size()).stream().map(Entry::key).toList());
+			}
+			destinationPolicy.droppedBudget.increment(entries.size() - keptEntries);
+			entries = entries.subList(0, keptEntries);
+			changed = true;
+		}
+
+		if (!changed) {
+			return null;
+		}
+		StringBuilder baggage = new StringBuilder(this.maxHeaderBytes);
+		for (Entry entry : entries) {
+			if (!baggage.isEmpty()) {
+				baggage.append(',');
+			}
+			baggage.append(entry.member());
+		}
+		return baggage.toString();
+	}
+
+	private DestinationPolicy destinationPolicy(String url) {
+		for (DestinationPolicy destinationPolicy : this.destinationPolicies) {
+			if (url.startsWith(destinationPolicy.urlPrefix)) {
+				return destinationPolicy;
+			}
+		}
+		return this.otherDestinationPolicy;
+	}
+
+	private int propagationHeaderBytes(HttpHeaders headers) {
+		int bytes = 0;
+		for (String propagationHeader : this.propagationHeaders) {
+			List<String> values = headers.get(propagationHeader);
+			if (values != null) {
+				for (String value : values) {
+					bytes += propagationHeader.length() + value.length();
+				}
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * @param member   "key=value;metadata" as found in the header
+	 * @param priority lower = kept first
+	 */
+	private record Entry(String key, String member, int priority) {
+	}
+
+	private static final class DestinationPolicy {
+
+		private final String name;
+		private final String urlPrefix;
+		// Field -> priority, empty = every field allowed with same priority
+		private final Map<String, Integer> allowedFields = new HashMap<>();
+		private final DistributionSummary headerBytes;
+		private final Counter droppedLocal;
+		private final Counter droppedNotAllowed;
+		private final Counter droppedBudget;
+
+		private DestinationPolicy(String name, String urlPrefix, List<String> allowedFields, MeterRegistry meterRegistry) {
+			this.name = name;
+			this.urlPrefix = urlPrefix;
+			for (String allowedField : allowedFields) {
+				this.allowedFields.putIfAbsent(allowedField, this.allowedFields.size());
+			}
+			this.headerBytes = DistributionSummary.builder("tracing.propagation.header.bytes")
+					.description("Bytes of propagation headers (trace context and baggage) sent per request")
+					.baseUnit("bytes")
+					.tag("destination", name)
+					.publishPercentileHistogram()
+					.register(meterRegistry);
+			this.droppedLocal = droppedFields(meterRegistry, name, "local");
+			this.droppedNotAllowed = droppedFields(meterRegistry, name, "not-allowed");
+			this.droppedBudget = droppedFields(meterRegistry, name, "budget");
+		}
+
+		boolean allows(String key) {
+			return this.allowedFields.isEmpty() || this.allowedFields.containsKey(key);
+		}
+
+		int priority(String key) {
+			return this.allowedFields.getOrDefault(key, 0);
+		}
+
+		private static Counter droppedFields(MeterRegistry meterRegistry, String destination, String reason) {
+			return Counter.builder("tracing.baggage.dropped")
+					.description("Baggage fields not propagated to destination")
+					.tag("destination", destination)
+					.tag("reason", reason)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.micrometer.tracing.reactor.support.export;
+
+import com.example.micrometer.tracing.reactor.support.load.SpanExportQueueDepth;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.CollectionRegistration;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bridges BatchSpanProcessor internal OpenTelemetry metrics (queueSize, processedSpans) to Micrometer.
+ * <br/>
+ * BatchSpanProcessor must be built with meterProvider(). Metrics are collected on read (at most every 100 ms).
+ * <br/>
+ * Metrics : tracing.export.queue.size, tracing.export.spans.dropped (queue full), tracing.export.spans.exported
+ */
+public class BatchSpanProcessorMetrics implements MetricReader, MeterBinder, SpanExportQueueDepth, DisposableBean {
+
+	private static final String QUEUE_SIZE_METRIC = "queueSize";
+	private static final String PROCESSED_SPANS_METRIC = "processedSpans";
+	private static final AttributeKey<Boolean> DROPPED_ATTRIBUTE = AttributeKey.booleanKey("dropped");
+	private static final long COLLECTION_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final SdkMeterProvider meterProvider;
+
+	private volatile CollectionRegistration collectionRegistration = CollectionRegistration.noop();
+	private volatile Snapshot snapshot;
+
+	public BatchSpanProcessorMetrics() {
+		this.snapshot = new Snapshot(System.nanoTime() - COLLECTION_INTERVAL_NANOS, 0, 0, 0);
+		this.meterProvider = SdkMeterProvider.builder()
+				.registerMetricReader(this)
+				.build();
+	}
+
+	public MeterProvider meterProvider() {
+		return this.meterProvider;
+	}
+
+	@Override
+	public long get() {
+		return snapshot().queueSize();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("tracing.export.queue.size", this, metrics -> metrics.snapshot().queueSize())
+				.description("Ended spans waiting to be exported")
+				.baseUnit("spans")
+				.register(registry);
+		FunctionCounter.builder("tracing.export.spans.dropped", this, metrics -> metrics.snapshot().droppedSpans())
+				.description("Ended spans dropped because export queue was full")
+				.baseUnit("spans")
+				.register(registry);
+		FunctionCounter.builder("tracing.export.spans.exported", this, metrics -> metrics.snapshot().exportedSpans())
+				.description("Spans handed to exporter")
+				.baseUnit("spans")
+				.register(registry);
+	}
+
+	@Override
+	public void register(CollectionRegistration registration) {
+		this.collectionRegistration = registration;
+	}
+
+	@Override
+	public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+		return AggregationTemporality.CUMULATIVE;
+	}
+
+	@Override
+	public CompletableResultCode forceFlush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public void destroy() {
+		this.meterProvider.close();
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = this.snapshot;
+		long now = System.nanoTime();
+		if (now - current.collectedAt() < COLLECTION_INTERVAL_NANOS) {
+			return current;
+		}
+
+		long queueSize = 0;
+		long droppedSpans = 0;
+		long exportedSpans = 0;
+		for (MetricData metricData : this.collectionRegistration.collectAllMetrics()) {
+			if (QUEUE_SIZE_METRIC.equals(metricData.getName())) {
+				for (LongPointData point : metricData.getLongGaugeData().getPoints()) {
+					queueSize += point.getValue();
+				}
+			} else if (PROCESSED_SPANS_METRIC.equals(metricData.getName())) {
+				for (LongPointData point : metricData.getLongSumData().getPoints()) {
+					if (Boolean.TRUE.equals(point.getAttributes().get(DROPPED_ATTRIBUTE))) {
+						droppedSpans += point.getValue();
+					} else {
+						exportedSpans += point.getValue();
+					}
+				}
+			}
+		}
+		Snapshot collected = new Snapshot(now, queueSize, droppedSpans, exportedSpans);
+		this.snapshot = collected;
+		return collected;
+	}
+
+	private record Snapshot(long collectedAt, long queueSize, long droppedSpans, long exportedSpans) {
+	}
+}
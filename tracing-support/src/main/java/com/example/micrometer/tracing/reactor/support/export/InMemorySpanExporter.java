@@ -0,0 +1,71 @@
+package com.example.micrometer.tracing.reactor.support.export;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps last exported spans in memory : local stand-in for an OTLP collector (Jaeger) in load tests and benchmarks.
+ * <br/>
+ * Bounded : oldest spans are evicted above maxSpans.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final int maxSpans;
+	private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicLong exportedSpans = new AtomicLong();
+
+	public InMemorySpanExporter(int maxSpans) {
+		this.maxSpans = maxSpans;
+	}
+
+	@Override
+	public CompletableResultCode export(Collection<SpanData> spanData) {
+		for (SpanData span : spanData) {
+			this.spans.addLast(span);
+			if (this.size.incrementAndGet() > this.maxSpans && this.spans.pollFirst() != null) {
+				this.size.decrementAndGet();
+			}
+		}
+		this.exportedSpans.addAndGet(spanData.size());
+		return CompletableResultCode.ofSuccess();
+	}
+
+	/**
+	 * @return spans kept in memory, oldest first
+	 */
+	public List<SpanData> getFinishedSpans() {
+		return new ArrayList<>(this.spans);
+	}
+
+	/**
+	 * @return number of spans exported since start (including evicted ones)
+	 */
+	public long getExportedSpans() {
+		return this.exportedSpans.get();
+	}
+
+	public void reset() {
+		this.spans.clear();
+		this.size.set(0);
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		reset();
+		return CompletableResultCode.ofSuccess();
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.micrometer.tracing.reactor.support.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+
+/**
+ * Measures exports of BatchSpanProcessor to delegate exporter.
+ * <br/>
+ * Metrics : tracing.export.latency (outcome = success/failure), tracing.export.batch.size, tracing.export.spans.failed
+ */
+class InstrumentedSpanExporter implements SpanExporter {
+
+	private final SpanExporter delegate;
+	private final MeterRegistry meterRegistry;
+	private final Timer.Builder latency;
+	private final DistributionSummary batchSize;
+	private final Counter failedSpans;
+
+	InstrumentedSpanExporter(SpanExporter delegate, MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.meterRegistry = meterRegistry;
+		this.latency = Timer.builder("tracing.export.latency")
+				.description("Time to export a batch of spans");
+		this.batchSize = DistributionSummary.builder("tracing.export.batch.size")
+				.description("Number of spans exported in a batch")
+				.baseUnit("spans")
+				.register(meterRegistry);
+		this.failedSpans = Counter.builder("tracing.export.spans.failed")
+				.description("Spans lost because their export failed or timed out")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public CompletableResultCode export(Collection<SpanData> spans) {
+		this.batchSize.record(spans.size());
+		Timer.Sample sample = Timer.start(this.meterRegistry);
+		CompletableResultCode result = this.delegate.export(spans);
+		result.whenComplete(() -> {
+			sample.stop(this.latency.tag("outcome", result.isSuccess() ? "success" : "failure").register(this.meterRegistry));
+			if (!result.isSuccess()) {
+				this.failedSpans.increment(spans.size());
+			}
+		});
+		return result;
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return this.delegate.flush();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		return this.delegate.shutdown();
+	}
+}
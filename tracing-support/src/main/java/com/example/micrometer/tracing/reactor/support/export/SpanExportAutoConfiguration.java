@@ -0,0 +1,61 @@
+package com.example.micrometer.tracing.reactor.support.export;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import io.micrometer.tracing.exporter.SpanFilter;
+import io.micrometer.tracing.exporter.SpanReporter;
+import io.micrometer.tracing.otel.bridge.CompositeSpanExporter;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Tuned and instrumented span export pipeline (tracing.export properties), replacing Spring Boot BatchSpanProcessor
+ * <br/>
+ * Metrics : tracing.export.queue.size, tracing.export.spans.dropped/exported/failed, tracing.export.latency, tracing.export.batch.size
+ */
+@AutoConfiguration(before = OpenTelemetryTracingAutoConfiguration.class)
+@EnableConfigurationProperties(SpanExportProperties.class)
+public class SpanExportAutoConfiguration {
+
+	@Bean
+	public BatchSpanProcessorMetrics batchSpanProcessorMetrics() {
+		return new BatchSpanProcessorMetrics();
+	}
+
+	// Same exporters, predicates, reporters and filters as Spring Boot BatchSpanProcessor
+	@Bean
+	public BatchSpanProcessor instrumentedBatchSpanProcessor(SpanExportProperties spanExportProperties,
+															 SpanExporters spanExporters,
+															 ObjectProvider<SpanExportingPredicate> spanExportingPredicates,
+															 ObjectProvider<SpanReporter> spanReporters,
+															 ObjectProvider<SpanFilter> spanFilters,
+															 BatchSpanProcessorMetrics batchSpanProcessorMetrics,
+															 MeterRegistry meterRegistry) {
+		CompositeSpanExporter compositeSpanExporter = new CompositeSpanExporter(spanExporters.list(),
+				spanExportingPredicates.orderedStream().toList(),
+				spanReporters.orderedStream().toList(),
+				spanFilters.orderedStream().toList());
+		return BatchSpanProcessor.builder(new InstrumentedSpanExporter(compositeSpanExporter, meterRegistry))
+				.setMaxQueueSize(spanExportProperties.maxQueueSize())
+				.setMaxExportBatchSize(spanExportProperties.maxExportBatchSize())
+				.setScheduleDelay(spanExportProperties.scheduleDelay())
+				.setExporterTimeout(spanExportProperties.exportTimeout())
+				.setMeterProvider(batchSpanProcessorMetrics.meterProvider())
+				.build();
+	}
+
+	// Picked up by Spring Boot as an additional exporter, disabled with OTLP exporter by management.tracing.enabled=false
+	@Bean
+	@ConditionalOnEnabledTracing
+	@ConditionalOnProperty(prefix = "tracing.export.in-memory", name = "enabled")
+	public InMemorySpanExporter inMemorySpanExporter(SpanExportProperties spanExportProperties) {
+		return new InMemorySpanExporter(spanExportProperties.inMemory().maxSpans());
+	}
+}
@@ -0,0 +1,33 @@
+package com.example.micrometer.tracing.reactor.support.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Span export pipeline (tracing.export properties)
+ * <br/>
+ * OTLP exporter itself (endpoint, transport http/grpc, gzip compression, timeouts) is configured by management.otlp.tracing properties.
+ *
+ * @param maxQueueSize        maximum number of ended spans waiting to be exported (spans are dropped above)
+ * @param maxExportBatchSize  maximum number of spans exported in a single batch
+ * @param scheduleDelay       delay between two exports when queue is below max export batch size
+ * @param exportTimeout       maximum time of an export before it is cancelled
+ * @param inMemory            in-memory exporter (local stand-in for OTLP collector)
+ */
+@ConfigurationProperties("tracing.export")
+public record SpanExportProperties(@DefaultValue("2048") int maxQueueSize,
+								   @DefaultValue("512") int maxExportBatchSize,
+								   @DefaultValue("5s") Duration scheduleDelay,
+								   @DefaultValue("30s") Duration exportTimeout,
+								   @DefaultValue InMemory inMemory) {
+
+	/**
+	 * @param enabled   keep exported spans in memory (disable OTLP export with management.otlp.tracing.export.enabled=false)
+	 * @param maxSpans  maximum number of spans kept, oldest spans are evicted
+	 */
+	public record InMemory(@DefaultValue("false") boolean enabled,
+						   @DefaultValue("10000") int maxSpans) {
+	}
+}
@@ -0,0 +1,18 @@
+package com.example.micrometer.tracing.reactor.support.load;
+
+/**
+ * Tracing work shed by TracingLoadShedder, each level includes previous ones
+ */
+public enum DegradationLevel {
+
+	// Full tracing
+	NONE,
+	// High cardinality key values are removed from observations (span attributes)
+	DROP_HIGH_CARDINALITY,
+	// Inner manual observations are not created (no span, no meter)
+	SKIP_INNER_OBSERVATIONS;
+
+	DegradationLevel lower() {
+		return this == NONE ? NONE : values()[ordinal() - 1];
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.micrometer.tracing.reactor.support.load;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationRegistryCustomizer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import reactor.netty.http.HttpResources;
+
+/**
+ * Load-aware shedding of tracing work (tracing.load-shedding properties)
+ * <br/>
+ * TracingLoadShedder observationPredicate() and observationFilter() are registered in ObservationRegistry.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "tracing.load-shedding", name = "enabled")
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+public class LoadSheddingAutoConfiguration {
+
+	@Bean
+	public TracingLoadShedder tracingLoadShedder(LoadSheddingProperties loadSheddingProperties,
+												 ObjectProvider<SpanExportQueueDepth> spanExportQueueDepth) {
+		// Event loops of Netty server (global Reactor Netty resources, used by Spring Boot by default)
+		return new TracingLoadShedder(loadSheddingProperties,
+				() -> HttpResources.get().onServer(true),
+				spanExportQueueDepth.getIfAvailable(() -> () -> 0));
+	}
+
+	@Bean
+	public ObservationRegistryCustomizer<ObservationRegistry> tracingLoadShedderObservationRegistryCustomizer(TracingLoadShedder tracingLoadShedder) {
+		return registry -> registry.observationConfig()
+				.observationPredicate(tracingLoadShedder.observationPredicate())
+				.observationFilter(tracingLoadShedder.observationFilter());
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.micrometer.tracing.reactor.support.load;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Load-aware shedding of tracing work (tracing.load-shedding properties)
+ *
+ * @param enabled                monitor load and shed tracing work above thresholds
+ * @param checkInterval          interval between two load checks (= also minimum time between two level changes)
+ * @param recoveryRatio          a level is left only when every signal is below recoveryRatio * its threshold for this level (hysteresis)
+ * @param innerObservationNames  manual observations skipped at level SKIP_INNER_OBSERVATIONS
+ * @param eventLoopLag           thresholds on delay of a task submitted to server event loops
+ * @param inFlightRequests       thresholds on number of HTTP requests being processed by the server
+ * @param exportQueueDepth       thresholds on number of spans waiting to be exported
+ */
+@ConfigurationProperties("tracing.load-shedding")
+public record LoadSheddingProperties(@DefaultValue("false") boolean enabled,
+									 @DefaultValue("500ms") Duration checkInterval,
+									 @DefaultValue("0.5") double recoveryRatio,
+									 @DefaultValue Set<String> innerObservationNames,
+									 @DefaultValue EventLoopLag eventLoopLag,
+									 @DefaultValue InFlightRequests inFlightRequests,
+									 @DefaultValue ExportQueueDepth exportQueueDepth) {
+
+	/**
+	 * @param dropHighCardinality    level DROP_HIGH_CARDINALITY above this lag
+	 * @param skipInnerObservations  level SKIP_INNER_OBSERVATIONS above this lag
+	 */
+	public record EventLoopLag(@DefaultValue("20ms") Duration dropHighCardinality,
+							   @DefaultValue("100ms") Duration skipInnerObservations) {
+	}
+
+	/**
+	 * @param dropHighCardinality    level DROP_HIGH_CARDINALITY above this number of requests
+	 * @param skipInnerObservations  level SKIP_INNER_OBSERVATIONS above this number of requests
+	 */
+	public record InFlightRequests(@DefaultValue("500") long dropHighCardinality,
+								   @DefaultValue("2000") long skipInnerObservations) {
+	}
+
+	/**
+	 * @param dropHighCardinality    level DROP_HIGH_CARDINALITY above this number of spans
+	 * @param skipInnerObservations  level SKIP_INNER_OBSERVATIONS above this number of spans
+	 */
+	public record ExportQueueDepth(@DefaultValue("1024") long dropHighCardinality,
+								   @DefaultValue("1800") long skipInnerObservations) {
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.micrometer.tracing.reactor.support.load;
+
+/**
+ * Number of spans waiting to be exported, provided by span export pipeline
+ */
+@FunctionalInterface
+public interface SpanExportQueueDepth {
+
+	long get();
+}
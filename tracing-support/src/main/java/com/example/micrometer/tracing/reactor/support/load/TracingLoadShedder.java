@@ -0,0 +1,224 @@
+package com.example.micrometer.tracing.reactor.support.load;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.search.Search;
+import io.micrometer.observation.ObservationFilter;
+import io.micrometer.observation.ObservationPredicate;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Monitors load of the server (event loops lag, in-flight requests, span export queue depth) and sheds tracing work above thresholds :
+ * <ul>
+ *     <li>DROP_HIGH_CARDINALITY : high cardinality key values are removed from inner observations (observationFilter())</li>
+ *     <li>SKIP_INNER_OBSERVATIONS : inner manual observations are not created (observationPredicate())</li>
+ * </ul>
+ * Level goes up as soon as a threshold is exceeded, and goes down one level at a time when every signal is back below
+ * recoveryRatio * threshold (hysteresis, avoids flapping around a threshold).
+ * <br/>
+ * Metrics : tracing.degradation.level (0 = NONE), tracing.event-loop.lag
+ */
+@Slf4j
+public class TracingLoadShedder implements MeterBinder, DisposableBean {
+
+	private static final String IN_FLIGHT_REQUESTS_METER = "http.server.requests.active";
+
+	private final LoadSheddingProperties properties;
+	private final Set<String> innerObservationNames;
+	private final Supplier<? extends EventExecutorGroup> eventLoops;
+	private final SpanExportQueueDepth spanExportQueueDepth;
+	private final Scheduler scheduler;
+	private final Disposable monitoring;
+	private final List<LagProbe> lagProbes = new ArrayList<>();
+
+	private volatile DegradationLevel level = DegradationLevel.NONE;
+	private volatile MeterRegistry meterRegistry;
+	private volatile long eventLoopLagNanos;
+
+	public TracingLoadShedder(LoadSheddingProperties properties,
+							  Supplier<? extends EventExecutorGroup> eventLoops,
+							  SpanExportQueueDepth spanExportQueueDepth) {
+		this.properties = properties;
+		this.innerObservationNames = Set.copyOf(properties.innerObservationNames());
+		this.eventLoops = eventLoops;
+		this.spanExportQueueDepth = spanExportQueueDepth;
+		this.scheduler = Schedulers.newSingle("tracing-load-monitor", true);
+		long intervalMillis = properties.checkInterval().toMillis();
+		this.monitoring = this.scheduler.schedulePeriodically(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public DegradationLevel level() {
+		return this.level;
+	}
+
+	/**
+	 * Observations not created at level SKIP_INNER_OBSERVATIONS
+	 * <br/>
+	 * Manual observations must be declared with .tap(SampledObservation.observation(...)) so that the resulting Observation.NOOP
+	 * doesn't hide parent observation.
+	 */
+	public ObservationPredicate observationPredicate() {
+		return (name, context) -> this.level.compareTo(DegradationLevel.SKIP_INNER_OBSERVATIONS) < 0 || !this.innerObservationNames.contains(name);
+	}
+
+	/**
+	 * Removes high cardinality key values of inner observations at level DROP_HIGH_CARDINALITY
+	 * (filters are applied on stop, before tracing handlers tag spans).
+	 * <br/>
+	 * HTTP server/client observations keep theirs (e.g. http.url : needed to find a request).
+	 */
+	public ObservationFilter observationFilter() {
+		return context -> {
+			if (this.level.compareTo(DegradationLevel.DROP_HIGH_CARDINALITY) >= 0 && this.innerObservationNames.contains(context.getName())) {
+				String[] highCardinalityKeys = context.getHighCardinalityKeyValues().stream()
+						.map(KeyValue::getKey)
+						.toArray(String[]::new);
+				if (highCardinalityKeys.length > 0) {
+					context.removeHighCardinalityKeyValues(highCardinalityKeys);
+				}
+			}
+			return context;
+		};
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.meterRegistry = registry;
+		Gauge.builder("tracing.degradation.level", this, shedder -> shedder.level.ordinal())
+				.description("Tracing work shed because of load (0 = none, 1 = high cardinality key values of inner observations dropped, 2 = inner observations skipped)")
+				.register(registry);
+		TimeGauge.builder("tracing.event-loop.lag", this, TimeUnit.NANOSECONDS, shedder -> shedder.eventLoopLagNanos)
+				.description("Maximum delay of a task submitted to server event loops during last check")
+				.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.monitoring.dispose();
+		this.scheduler.dispose();
+	}
+
+	private void check() {
+		try {
+			this.eventLoopLagNanos = measureEventLoopLag();
+			double[] signals = {this.eventLoopLagNanos, inFlightRequests(), this.spanExportQueueDepth.get()};
+
+			DegradationLevel current = this.level;
+			DegradationLevel reached = levelReached(signals, 1);
+			if (reached.compareTo(current) > 0) {
+				changeLevel(current, reached, signals);
+			} else if (current != DegradationLevel.NONE && levelReached(signals, this.properties.recoveryRatio()).compareTo(current) < 0) {
+				changeLevel(current, current.lower(), signals);
+			}
+		} catch (RuntimeException e) {
+			log.warn("Tracing load check failed", e);
+		}
+	}
+
+	private void changeLevel(DegradationLevel from, DegradationLevel to, double[] signals) {
+		this.level = to;
+		log.info("Tracing degradation level {} -> {} (event loop lag = {} ms, in-flight requests = {}, export queue depth = {})",
+				from, to, TimeUnit.NANOSECONDS.toMillis((long) signals[0]), (long) signals[1], (long) signals[2]);
+	}
+
+	private DegradationLevel levelReached(double[] signals, double ratio) {
+		if (exceeds(signals, ratio,
+				this.properties.eventLoopLag().skipInnerObservations().toNanos(),
+				this.properties.inFlightRequests().skipInnerObservations(),
+				this.properties.exportQueueDepth().skipInnerObservations())) {
+			return DegradationLevel.SKIP_INNER_OBSERVATIONS;
+		}
+		if (exceeds(signals, ratio,
+				this.properties.eventLoopLag().dropHighCardinality().toNanos(),
+				this.properties.inFlightRequests().dropHighCardinality(),
+				this.properties.exportQueueDepth().dropHighCardinality())) {
+			return DegradationLevel.DROP_HIGH_CARDINALITY;
+		}
+		return DegradationLevel.NONE;
+	}
+
+	private static boolean exceeds(double[] signals, double ratio, double... thresholds) {
+		for (int i = 0; i < signals.length; i++) {
+			if (signals[i] > thresholds[i] * ratio) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private double inFlightRequests() {
+		MeterRegistry registry = this.meterRegistry;
+		if (registry == null) {
+			return 0;
+		}
+		return Search.in(registry).name(IN_FLIGHT_REQUESTS_METER).longTaskTimers().stream()
+				.mapToInt(LongTaskTimer::activeTasks)
+				.sum();
+	}
+
+	/**
+	 * A probe task is submitted to each event loop : lag = time between submission and execution.
+	 * A probe still waiting from previous check counts for its current age (a blocked event loop is seen as lagging).
+	 */
+	private long measureEventLoopLag() {
+		if (this.lagProbes.isEmpty()) {
+			for (EventExecutor eventExecutor : this.eventLoops.get()) {
+				this.lagProbes.add(new LagProbe(eventExecutor));
+			}
+		}
+
+		long maxLag = 0;
+		for (LagProbe lagProbe : this.lagProbes) {
+			maxLag = Math.max(maxLag, lagProbe.lagAndResubmit());
+		}
+		return maxLag;
+	}
+
+	private static final class LagProbe implements Runnable {
+
+		private final EventExecutor eventExecutor;
+		// 0 = no probe waiting for execution
+		private final AtomicLong submittedAt = new AtomicLong();
+		private volatile long lastLag;
+
+		private LagProbe(EventExecutor eventExecutor) {
+			this.eventExecutor = eventExecutor;
+		}
+
+		@Override
+		public void run() {
+			this.lastLag = System.nanoTime() - this.submittedAt.getAndSet(0);
+		}
+
+		long lagAndResubmit() {
+			long submitted = this.submittedAt.get();
+			if (submitted != 0) {
+				return System.nanoTime() - submitted;
+			}
+
+			long lag = this.lastLag;
+			if (!this.eventExecutor.isShuttingDown()) {
+				this.submittedAt.set(System.nanoTime());
+				this.eventExecutor.execute(this);
+			}
+			return lag;
+		}
+	}
+}
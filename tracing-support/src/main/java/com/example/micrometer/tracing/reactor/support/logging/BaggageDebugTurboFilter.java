@@ -0,0 +1,57 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.opentelemetry.api.baggage.Baggage;
+import org.slf4j.Marker;
+
+import java.util.List;
+
+/**
+ * Enables debug level for requests flagged by a baggage field, whatever the logger level.
+ * <br/>
+ * Logback calls turbo filters for isDebugEnabled() too : log.isDebugEnabled() guards are true only for flagged requests.
+ * Cost for other events : a level comparison (info and above) or a baggage lookup in current context (debug and trace).
+ */
+public class BaggageDebugTurboFilter extends TurboFilter {
+
+	private static final String FLAG_VALUE = "true";
+
+	private final String baggageField;
+	private final List<String> loggers;
+
+	public BaggageDebugTurboFilter(String baggageField, List<String> loggers) {
+		this.baggageField = baggageField;
+		this.loggers = List.copyOf(loggers);
+		setName("baggage-debug");
+	}
+
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+		if (level == null || level.isGreaterOrEqual(Level.INFO) || !matches(logger.getName())) {
+			return FilterReply.NEUTRAL;
+		}
+		return FLAG_VALUE.equals(Baggage.current().getEntryValue(this.baggageField)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+	}
+
+	// Removed from Logback context when application context is closed
+	@Override
+	public void stop() {
+		super.stop();
+		if (getContext() instanceof LoggerContext loggerContext) {
+			loggerContext.getTurboFilterList().remove(this);
+		}
+	}
+
+	private boolean matches(String loggerName) {
+		for (String logger : this.loggers) {
+			if (loggerName.startsWith(logger)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import io.micrometer.observation.Observation;
+import io.opentelemetry.api.baggage.Baggage;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of current baggage, read directly from OpenTelemetry Baggage (no intermediate Micrometer Baggage objects as OtelTracer.getAllBaggage()).
+ * <br/>
+ * current(observation) builds the view once per request : it is stored in the observation context with its baggage,
+ * and rebuilt only when baggage changes (OpenTelemetry Baggage is immutable, a new entry is a new instance).
+ * <br/>
+ * For log arguments, lazy() defers rendering until the log event is actually written.
+ */
+public final class BaggageView {
+
+	private BaggageView() {
+	}
+
+	/**
+	 * @param observation current observation of the request (view is not stored for null or Observation.NOOP)
+	 * @return entries of current baggage (immutable)
+	 */
+	public static Map<String, String> current(Observation observation) {
+		Baggage baggage = Baggage.current();
+		if (observation == null || observation.isNoop()) {
+			return of(baggage);
+		}
+
+		Observation.Context context = observation.getContext();
+		StoredView storedView = context.get(StoredView.class);
+		if (storedView != null && storedView.baggage() == baggage) {
+			return storedView.entries();
+		}
+		Map<String, String> entries = of(baggage);
+		context.put(StoredView.class, new StoredView(baggage, entries));
+		return entries;
+	}
+
+	/**
+	 * @return log argument rendering current baggage (captured now) only when formatted
+	 */
+	public static Object lazy() {
+		Baggage baggage = Baggage.current();
+		return new Object() {
+			@Override
+			public String toString() {
+				return of(baggage).toString();
+			}
+		};
+	}
+
+	private static Map<String, String> of(Baggage baggage) {
+		if (baggage.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, String> entries = new LinkedHashMap<>(baggage.size() * 2);
+		baggage.forEach((key, entry) -> entries.put(key, entry.getValue()));
+		return Collections.unmodifiableMap(entries);
+	}
+
+	private record StoredView(Baggage baggage, Map<String, String> entries) {
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Per-request debug logging (tracing.debug-logging properties) : BaggageDebugTurboFilter is added to Logback context,
+ * DebugSamplingWebFilter flags a sample of incoming requests when sample-rate > 0
+ */
+@AutoConfiguration
+@ConditionalOnClass(LoggerContext.class)
+@ConditionalOnProperty(prefix = "tracing.debug-logging", name = "enabled")
+@EnableConfigurationProperties(DebugLoggingProperties.class)
+public class DebugLoggingAutoConfiguration {
+
+	@Bean(destroyMethod = "stop")
+	public BaggageDebugTurboFilter baggageDebugTurboFilter(DebugLoggingProperties debugLoggingProperties) {
+		BaggageDebugTurboFilter turboFilter = new BaggageDebugTurboFilter(debugLoggingProperties.baggageField(), debugLoggingProperties.loggers());
+		if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext) {
+			turboFilter.setContext(loggerContext);
+			turboFilter.start();
+			loggerContext.addTurboFilter(turboFilter);
+		}
+		return turboFilter;
+	}
+
+	@Bean
+	@ConditionalOnExpression("${tracing.debug-logging.sample-rate:0} > 0")
+	public DebugSamplingWebFilter debugSamplingWebFilter(DebugLoggingProperties debugLoggingProperties) {
+		return new DebugSamplingWebFilter(debugLoggingProperties.baggageField(), debugLoggingProperties.sampleRate());
+	}
+}
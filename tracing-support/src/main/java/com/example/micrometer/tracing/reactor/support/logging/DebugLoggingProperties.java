@@ -0,0 +1,21 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Per-request debug logging (tracing.debug-logging properties)
+ *
+ * @param enabled       requests carrying the baggage field with value "true" are logged at debug level
+ * @param baggageField  baggage field flagging a debug request (must be propagated to other services, cf tracing.baggage-propagation)
+ * @param sampleRate    fraction of incoming requests flagged by this server (0 = only requests flagged by caller)
+ * @param loggers       logger name prefixes logged at debug level for flagged requests
+ */
+@ConfigurationProperties("tracing.debug-logging")
+public record DebugLoggingProperties(@DefaultValue("false") boolean enabled,
+									 @DefaultValue("debug") String baggageField,
+									 @DefaultValue("0") double sampleRate,
+									 @DefaultValue("com.example") List<String> loggers) {
+}
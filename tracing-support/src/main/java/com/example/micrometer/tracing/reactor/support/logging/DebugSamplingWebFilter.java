@@ -0,0 +1,65 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import io.micrometer.tracing.contextpropagation.reactor.ReactorBaggage;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flags a sample of incoming requests as debug requests (baggage field = "true"), requests already flagged by caller (field = "true") are kept as is.
+ */
+public class DebugSamplingWebFilter implements WebFilter, Ordered {
+
+	private static final String BAGGAGE_HEADER = "baggage";
+	private static final String FLAG_VALUE = "true";
+
+	private final String baggageField;
+	private final double sampleRate;
+
+	public DebugSamplingWebFilter(String baggageField, double sampleRate) {
+		this.baggageField = baggageField;
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (ThreadLocalRandom.current().nextDouble() >= this.sampleRate || isFlagged(exchange.getRequest().getHeaders())) {
+			return chain.filter(exchange);
+		}
+		return chain.filter(exchange)
+				.contextWrite(ReactorBaggage.append(this.baggageField, FLAG_VALUE));
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	/**
+	 * @return true if a baggage header has an entry "field=true" (members "key=value;properties", whitespace around key and value ignored)
+	 */
+	boolean isFlagged(HttpHeaders headers) {
+		List<String> baggageValues = headers.get(BAGGAGE_HEADER);
+		if (baggageValues == null) {
+			return false;
+		}
+		for (String baggageValue : baggageValues) {
+			for (String member : baggageValue.split(",")) {
+				int separatorIndex = member.indexOf('=');
+				if (separatorIndex < 0 || !this.baggageField.equals(member.substring(0, separatorIndex).trim())) {
+					continue;
+				}
+				int propertiesIndex = member.indexOf(';', separatorIndex);
+				String value = member.substring(separatorIndex + 1, propertiesIndex < 0 ? member.length() : propertiesIndex).trim();
+				return FLAG_VALUE.equals(value);
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Events per chunk of elements of a long sequence : a single span with an event per chunk instead of a span per element.
+ * <br/>
+ * Observation is read from Reactor Context : elements are not processed in a ThreadLocal restoring boundary.
+ */
+public final class ChunkEvents {
+
+	private ChunkEvents() {
+	}
+
+	/**
+	 * Add an event to current observation each time chunkSize elements are emitted (+ 1 event for last incomplete chunk)
+	 * and add count of elements as attribute on completion.
+	 * <br/>
+	 * Must be declared before .tap(observation()) : observation of the sequence is read from the Context it writes.
+	 *
+	 * @param flux      sequence of elements
+	 * @param eventName name of chunk events
+	 * @param chunkSize number of elements per chunk
+	 * @param countKey  attribute set to the number of elements
+	 * @return sequence of elements
+	 */
+	public static <T> Flux<T> addChunkEvents(Flux<T> flux, String eventName, int chunkSize, String countKey) {
+		return Flux.deferContextual(contextView -> {
+			Observation observation = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, Observation.NOOP);
+			AtomicLong count = new AtomicLong();
+			return flux
+					.doOnNext(element -> {
+						long elementCount = count.incrementAndGet();
+						if (elementCount % chunkSize == 0) {
+							addChunkEvent(observation, eventName, elementCount - chunkSize, elementCount);
+						}
+					})
+					.doOnComplete(() -> {
+						long elementCount = count.get();
+						long lastChunkSize = elementCount % chunkSize;
+						if (lastChunkSize != 0) {
+							addChunkEvent(observation, eventName, elementCount - lastChunkSize, elementCount);
+						}
+						observation.highCardinalityKeyValue(countKey, String.valueOf(elementCount));
+					});
+		});
+	}
+
+	private static void addChunkEvent(Observation observation, String eventName, long fromIndex, long toIndex) {
+		observation.event(Observation.Event.of(eventName, eventName + " [" + fromIndex + ", " + toIndex + "["));
+	}
+}
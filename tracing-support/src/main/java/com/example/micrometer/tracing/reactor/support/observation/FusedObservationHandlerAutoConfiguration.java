@@ -0,0 +1,42 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.tracing.Tracer;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationProperties;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Fused tracing + meters handler for local observations (tracing.fused-handler.enabled) :
+ * FusedTracingMeterObservationHandler is ordered before DefaultTracingObservationHandler in the tracing handlers group,
+ * UnfusedMeterObservationHandler replaces Spring Boot meter handler for other observations
+ */
+@AutoConfiguration(after = MicrometerTracingAutoConfiguration.class, before = ObservationAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "tracing.fused-handler", name = "enabled")
+@EnableConfigurationProperties(ObservationProperties.class)
+public class FusedObservationHandlerAutoConfiguration {
+
+	@Bean
+	@Order(MicrometerTracingAutoConfiguration.DEFAULT_TRACING_OBSERVATION_HANDLER_ORDER - 1)
+	public FusedTracingMeterObservationHandler fusedTracingMeterObservationHandler(Tracer tracer, MeterRegistry meterRegistry,
+																				   ObservationProperties observationProperties) {
+		return new FusedTracingMeterObservationHandler(tracer, meterRegistry, observationProperties.getLongTaskTimer().isEnabled());
+	}
+
+	// Same meter handler as Spring Boot (management.observations.long-task-timer.enabled)
+	@Bean
+	public UnfusedMeterObservationHandler unfusedMeterObservationHandler(Tracer tracer, MeterRegistry meterRegistry,
+																		 ObservationProperties observationProperties,
+																		 FusedTracingMeterObservationHandler fusedTracingMeterObservationHandler) {
+		DefaultMeterObservationHandler meterObservationHandler = observationProperties.getLongTaskTimer().isEnabled()
+				? new DefaultMeterObservationHandler(meterRegistry)
+				: new DefaultMeterObservationHandler(meterRegistry, DefaultMeterObservationHandler.IgnoredMeters.LONG_TASK_TIMER);
+		return new UnfusedMeterObservationHandler(meterObservationHandler, tracer, fusedTracingMeterObservationHandler);
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Span and meters of local observations (Observation.Context, e.g. .tap(Micrometer.observation(...))) in a single handler,
+ * instead of DefaultTracingObservationHandler + Spring Boot TracingAwareMeterObservationHandler(DefaultMeterObservationHandler) :
+ * <ul>
+ *     <li>on stop, low cardinality key values are read once for span tags and timer tags (no getAllKeyValues() merge, no second pass)</li>
+ *     <li>timer is stopped without opening a scope on the span (TracingAwareMeterObservationHandler scope only serves exemplars,
+ *     not supported by the meter registries of these applications)</li>
+ *     <li>one handler lookup per callback in the tracing group, meter group skips these contexts (UnfusedMeterObservationHandler)</li>
+ * </ul>
+ * Same span (name, tags, error, events) and same meters (timer with error tag, long task timer, event counters) as the default handlers.
+ */
+public class FusedTracingMeterObservationHandler extends DefaultTracingObservationHandler {
+
+	private static final String ERROR_KEY = "error";
+	private static final String NO_ERROR = "none";
+
+	private final MeterRegistry meterRegistry;
+	private final boolean longTaskTimer;
+
+	public FusedTracingMeterObservationHandler(Tracer tracer, MeterRegistry meterRegistry, boolean longTaskTimer) {
+		super(tracer);
+		this.meterRegistry = meterRegistry;
+		this.longTaskTimer = longTaskTimer;
+	}
+
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+		// Sender/receiver contexts keep propagating handlers, Reactor Netty contexts keep ReactorNettyTracingObservationHandler
+		return context != null && context.getClass() == Observation.Context.class;
+	}
+
+	@Override
+	public void onStart(Observation.Context context) {
+		super.onStart(context);
+		if (this.longTaskTimer) {
+			LongTaskTimer.Sample longTaskSample = LongTaskTimer.builder(context.getName() + ".active")
+					.tags(lowCardinalityTags(context))
+					.register(this.meterRegistry)
+					.start();
+			context.put(LongTaskTimer.Sample.class, longTaskSample);
+		}
+		context.put(Timer.Sample.class, Timer.start(this.meterRegistry));
+	}
+
+	@Override
+	public void onEvent(Observation.Event event, Observation.Context context) {
+		super.onEvent(event, context);
+		Counter.builder(context.getName() + "." + event.getName())
+				.tags(lowCardinalityTags(context))
+				.register(this.meterRegistry)
+				.increment();
+	}
+
+	@Override
+	public void onStop(Observation.Context context) {
+		Span span = getRequiredSpan(context);
+		List<Tag> tags = new ArrayList<>();
+		for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+			tag(span, keyValue);
+			tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+		}
+		for (KeyValue keyValue : context.getHighCardinalityKeyValues()) {
+			tag(span, keyValue);
+		}
+		Throwable error = context.getError();
+		tags.add(Tag.of(ERROR_KEY, error == null ? NO_ERROR : error.getClass().getSimpleName()));
+
+		context.<Timer.Sample>getRequired(Timer.Sample.class).stop(Timer.builder(context.getName()).tags(tags).register(this.meterRegistry));
+		if (this.longTaskTimer) {
+			context.<LongTaskTimer.Sample>getRequired(LongTaskTimer.Sample.class).stop();
+		}
+
+		span.name(getSpanName(context));
+		endSpan(context, span);
+	}
+
+	// Same as TracingObservationHandler.tagSpan() : an "error" key value marks the span in error
+	private static void tag(Span span, KeyValue keyValue) {
+		if (ERROR_KEY.equalsIgnoreCase(keyValue.getKey())) {
+			span.error(new RuntimeException(keyValue.getValue()));
+		} else {
+			span.tag(keyValue.getKey(), keyValue.getValue());
+		}
+	}
+
+	private static List<Tag> lowCardinalityTags(Observation.Context context) {
+		List<Tag> tags = new ArrayList<>();
+		for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+			tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+		}
+		return tags;
+	}
+}
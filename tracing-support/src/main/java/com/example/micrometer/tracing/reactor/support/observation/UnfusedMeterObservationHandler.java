@@ -0,0 +1,25 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import io.micrometer.core.instrument.observation.MeterObservationHandler;
+import io.micrometer.observation.Observation;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.TracingAwareMeterObservationHandler;
+
+/**
+ * Spring Boot meter handler (TracingAwareMeterObservationHandler) for observations whose meters are not recorded by FusedTracingMeterObservationHandler
+ */
+public class UnfusedMeterObservationHandler extends TracingAwareMeterObservationHandler<Observation.Context> {
+
+	private final FusedTracingMeterObservationHandler fusedHandler;
+
+	public UnfusedMeterObservationHandler(MeterObservationHandler<Observation.Context> delegate, Tracer tracer,
+										  FusedTracingMeterObservationHandler fusedHandler) {
+		super(delegate, tracer);
+		this.fusedHandler = fusedHandler;
+	}
+
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+		return !this.fusedHandler.supportsContext(context) && super.supportsContext(context);
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.micrometer.tracing.reactor.support.overhead;
+
+import com.example.micrometer.tracing.reactor.support.load.SpanExportQueueDepth;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Self-telemetry of tracing overhead (tracing.overhead properties) : TracingOverheadRecorder handlers and meters,
+ * actuator endpoint tracingoverhead (must be exposed, cf management.endpoints.web.exposure.include)
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "tracing.overhead", name = "enabled")
+@EnableConfigurationProperties(TracingOverheadProperties.class)
+public class TracingOverheadAutoConfiguration {
+
+	@Bean
+	public static TracingOverheadHandlersRegistrar tracingOverheadHandlersRegistrar(ObjectProvider<TracingOverheadRecorder> tracingOverheadRecorder) {
+		return new TracingOverheadHandlersRegistrar(tracingOverheadRecorder);
+	}
+
+	@Bean
+	public TracingOverheadRecorder tracingOverheadRecorder(TracingOverheadProperties tracingOverheadProperties) {
+		return new TracingOverheadRecorder(tracingOverheadProperties.sampleRate());
+	}
+
+	@Bean
+	@ConditionalOnAvailableEndpoint
+	public TracingOverheadEndpoint tracingOverheadEndpoint(TracingOverheadRecorder tracingOverheadRecorder,
+														   ObjectProvider<SpanExportQueueDepth> spanExportQueueDepth) {
+		return new TracingOverheadEndpoint(tracingOverheadRecorder, spanExportQueueDepth.getIfAvailable(() -> () -> 0));
+	}
+}
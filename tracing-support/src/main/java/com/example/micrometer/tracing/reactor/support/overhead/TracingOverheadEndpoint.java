@@ -0,0 +1,86 @@
+package com.example.micrometer.tracing.reactor.support.overhead;
+
+import com.example.micrometer.tracing.reactor.support.load.SpanExportQueueDepth;
+import com.example.micrometer.tracing.reactor.support.overhead.TracingOverheadRecorder.ObservationOverhead;
+import com.example.micrometer.tracing.reactor.support.overhead.TracingOverheadRecorder.Phase;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint /actuator/tracingoverhead : tracing overhead per observation measured by TracingOverheadRecorder,
+ * and spans waiting to be exported
+ */
+@Endpoint(id = "tracingoverhead")
+public class TracingOverheadEndpoint {
+
+	private final TracingOverheadRecorder tracingOverheadRecorder;
+	private final SpanExportQueueDepth spanExportQueueDepth;
+
+	public TracingOverheadEndpoint(TracingOverheadRecorder tracingOverheadRecorder, SpanExportQueueDepth spanExportQueueDepth) {
+		this.tracingOverheadRecorder = tracingOverheadRecorder;
+		this.spanExportQueueDepth = spanExportQueueDepth;
+	}
+
+	@ReadOperation
+	public TracingOverheadReport overhead() {
+		List<ObservationReport> observations = this.tracingOverheadRecorder.observations().stream()
+				.map(TracingOverheadEndpoint::report)
+				.sorted(Comparator.comparing(ObservationReport::name).thenComparing(ObservationReport::contextualName))
+				.toList();
+		return new TracingOverheadReport(this.tracingOverheadRecorder.sampleRate(), this.spanExportQueueDepth.get(), observations);
+	}
+
+	private static ObservationReport report(ObservationOverhead observationOverhead) {
+		return new ObservationReport(observationOverhead.name(),
+				observationOverhead.contextualName(),
+				(long) observationOverhead.spans().count(),
+				observationOverhead.handlers(Phase.START).count(),
+				handlersTime(observationOverhead.handlers(Phase.START)),
+				handlersTime(observationOverhead.handlers(Phase.STOP)),
+				handlersTime(observationOverhead.handlers(Phase.SCOPE)),
+				observationOverhead.attributes().mean(),
+				observationOverhead.baggage().mean());
+	}
+
+	private static HandlersTime handlersTime(Timer timer) {
+		return new HandlersTime(timer.mean(TimeUnit.MICROSECONDS), timer.max(TimeUnit.MICROSECONDS));
+	}
+
+	/**
+	 * @param sampleRate       fraction of measured observations
+	 * @param exportQueueSize  spans waiting to be exported
+	 */
+	public record TracingOverheadReport(double sampleRate,
+										long exportQueueSize,
+										List<ObservationReport> observations) {
+	}
+
+	/**
+	 * @param spans                 recorded spans (every observation)
+	 * @param sampledObservations   measured observations
+	 * @param attributesPerSpan     mean of measured observations with a recorded span
+	 * @param baggagePerSpan        mean of measured observations with a recorded span
+	 */
+	public record ObservationReport(String name,
+									String contextualName,
+									long spans,
+									long sampledObservations,
+									HandlersTime start,
+									HandlersTime stop,
+									HandlersTime scope,
+									double attributesPerSpan,
+									double baggagePerSpan) {
+	}
+
+	/**
+	 * Time spent in handlers callbacks of an observation, in microseconds (max = recent maximum)
+	 */
+	public record HandlersTime(double meanMicros,
+							   double maxMicros) {
+	}
+}
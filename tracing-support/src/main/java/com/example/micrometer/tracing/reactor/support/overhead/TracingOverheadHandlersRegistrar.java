@@ -0,0 +1,40 @@
+package com.example.micrometer.tracing.reactor.support.overhead;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers TracingOverheadRecorder first handler before the handlers registered by Spring Boot (ObservationRegistry post-processing after initialization),
+ * and its last handler once every singleton is created (after ObservationRegistryCustomizer handlers)
+ * <br/>
+ * Spring Boot groups observation handler beans by type and registers groups before other handlers, an ordered handler bean can't be first.
+ */
+public class TracingOverheadHandlersRegistrar implements BeanPostProcessor, SmartInitializingSingleton {
+
+	private final ObjectProvider<TracingOverheadRecorder> tracingOverheadRecorder;
+	private final List<ObservationRegistry> observationRegistries = new ArrayList<>();
+
+	public TracingOverheadHandlersRegistrar(ObjectProvider<TracingOverheadRecorder> tracingOverheadRecorder) {
+		this.tracingOverheadRecorder = tracingOverheadRecorder;
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof ObservationRegistry observationRegistry) {
+			observationRegistry.observationConfig().observationHandler(this.tracingOverheadRecorder.getObject().firstHandler());
+			this.observationRegistries.add(observationRegistry);
+		}
+		return bean;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		this.observationRegistries.forEach(observationRegistry ->
+				observationRegistry.observationConfig().observationHandler(this.tracingOverheadRecorder.getObject().lastHandler()));
+	}
+}
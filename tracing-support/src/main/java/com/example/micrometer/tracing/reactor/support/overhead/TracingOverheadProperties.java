@@ -0,0 +1,15 @@
+package com.example.micrometer.tracing.reactor.support.overhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Self-telemetry of tracing overhead (tracing.overhead properties)
+ *
+ * @param enabled     measure observation handlers callbacks, spans, attributes and baggage per observation
+ * @param sampleRate  fraction of observations whose handlers callbacks, attributes and baggage are measured (spans are always counted)
+ */
+@ConfigurationProperties("tracing.overhead")
+public record TracingOverheadProperties(@DefaultValue("false") boolean enabled,
+										@DefaultValue("0.01") double sampleRate) {
+}
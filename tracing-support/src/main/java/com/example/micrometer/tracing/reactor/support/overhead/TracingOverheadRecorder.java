@@ -0,0 +1,324 @@
+package com.example.micrometer.tracing.reactor.support.overhead;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import io.opentelemetry.api.baggage.Baggage;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of tracing per observation (name, contextual name = route for HTTP observations).
+ * <br/>
+ * Handlers callbacks are bracketed by firstHandler() (registered before every other handler) and lastHandler() (registered after):
+ * start and scope opening notify handlers in registration order, stop and scope closing in reverse order,
+ * so the time between both brackets is the time spent in every other handler (Spring Boot tracing and metrics handlers, customizers handlers).
+ * Only a sample of observations is measured (System.nanoTime() calls and a context entry), recorded spans are counted for every observation.
+ * <br/>
+ * Metrics : tracing.overhead.handlers (phase = start/stop/scope, scope = every scope opening and closing of an observation),
+ * tracing.overhead.spans, tracing.overhead.span.attributes, tracing.overhead.span.baggage,
+ * all tagged with observation name and contextual.name
+ */
+public class TracingOverheadRecorder implements MeterBinder {
+
+	// Callbacks of an observation bracketed by first and last handlers run on a single thread
+	private static final ThreadLocal<long[]> CALLBACKS_START = ThreadLocal.withInitial(() -> new long[1]);
+
+	private final double sampleRate;
+	// Observation name -> contextual name -> meters
+	private final Map<String, Map<String, ObservationOverhead>> observations = new ConcurrentHashMap<>();
+	private final ObservationHandler<Observation.Context> firstHandler = new FirstHandler();
+	private final ObservationHandler<Observation.Context> lastHandler = new LastHandler();
+	private volatile MeterRegistry meterRegistry;
+
+	public TracingOverheadRecorder(double sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.meterRegistry = registry;
+	}
+
+	/**
+	 * @return handler to register before every other handler
+	 */
+	public ObservationHandler<Observation.Context> firstHandler() {
+		return this.firstHandler;
+	}
+
+	/**
+	 * @return handler to register after every other handler
+	 */
+	public ObservationHandler<Observation.Context> lastHandler() {
+		return this.lastHandler;
+	}
+
+	public double sampleRate() {
+		return this.sampleRate;
+	}
+
+	/**
+	 * @return meters of observations seen since start
+	 */
+	public List<ObservationOverhead> observations() {
+		List<ObservationOverhead> observationOverheads = new ArrayList<>();
+		this.observations.values().forEach(contextualNames -> observationOverheads.addAll(contextualNames.values()));
+		return observationOverheads;
+	}
+
+	/**
+	 * @return null until meter registry is bound
+	 */
+	private ObservationOverhead observationOverhead(Observation.Context context) {
+		MeterRegistry registry = this.meterRegistry;
+		if (registry == null) {
+			return null;
+		}
+		String name = context.getName() == null ? "unknown" : context.getName();
+		String contextualName = context.getContextualName() == null ? name : context.getContextualName();
+		return this.observations.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+				.computeIfAbsent(contextualName, key -> new ObservationOverhead(name, contextualName, registry));
+	}
+
+	private static boolean recordingSpan(Observation.Context context) {
+		TracingObservationHandler.TracingContext tracingContext = context.get(TracingObservationHandler.TracingContext.class);
+		Span span = tracingContext == null ? null : tracingContext.getSpan();
+		return span != null && !span.isNoop();
+	}
+
+	private static void markCallbacksStart() {
+		CALLBACKS_START.get()[0] = System.nanoTime();
+	}
+
+	/**
+	 * @return nanoseconds since markCallbacksStart(), -1 if not marked
+	 */
+	private static long callbacksNanos() {
+		long[] callbacksStart = CALLBACKS_START.get();
+		long nanos = callbacksStart[0] == 0 ? -1 : System.nanoTime() - callbacksStart[0];
+		callbacksStart[0] = 0;
+		return nanos;
+	}
+
+	private static int size(KeyValues keyValues) {
+		int size = 0;
+		for (KeyValue ignored : keyValues) {
+			size++;
+		}
+		return size;
+	}
+
+	public enum Phase {
+		START, STOP, SCOPE
+	}
+
+	/**
+	 * Meters of an observation
+	 */
+	public static final class ObservationOverhead {
+
+		private final String name;
+		private final String contextualName;
+		private final Map<Phase, Timer> handlers = new EnumMap<>(Phase.class);
+		private final Counter spans;
+		private final DistributionSummary attributes;
+		private final DistributionSummary baggage;
+
+		private ObservationOverhead(String name, String contextualName, MeterRegistry registry) {
+			this.name = name;
+			this.contextualName = contextualName;
+			for (Phase phase : Phase.values()) {
+				this.handlers.put(phase, Timer.builder("tracing.overhead.handlers")
+						.description("Time spent in observation handlers callbacks per observation (sampled)")
+						.tag("name", name)
+						.tag("contextual.name", contextualName)
+						.tag("phase", phase.name().toLowerCase())
+						.register(registry));
+			}
+			this.spans = Counter.builder("tracing.overhead.spans")
+					.description("Recorded spans created by observations")
+					.tag("name", name)
+					.tag("contextual.name", contextualName)
+					.register(registry);
+			this.attributes = DistributionSummary.builder("tracing.overhead.span.attributes")
+					.description("Attributes (key values) per recorded span (sampled)")
+					.tag("name", name)
+					.tag("contextual.name", contextualName)
+					.register(registry);
+			this.baggage = DistributionSummary.builder("tracing.overhead.span.baggage")
+					.description("Baggage entries per recorded span (sampled)")
+					.tag("name", name)
+					.tag("contextual.name", contextualName)
+					.register(registry);
+		}
+
+		public String name() {
+			return this.name;
+		}
+
+		public String contextualName() {
+			return this.contextualName;
+		}
+
+		public Timer handlers(Phase phase) {
+			return this.handlers.get(phase);
+		}
+
+		public Counter spans() {
+			return this.spans;
+		}
+
+		public DistributionSummary attributes() {
+			return this.attributes;
+		}
+
+		public DistributionSummary baggage() {
+			return this.baggage;
+		}
+	}
+
+	/**
+	 * Measurement of a sampled observation, stored in its context
+	 * <br/>
+	 * baggage = largest baggage current in a scope of the observation or at stop
+	 */
+	private static final class Measurement {
+
+		private long startNanos = -1;
+		private long scopeNanos;
+		private int attributes;
+		private int baggage;
+		private boolean recordingSpan;
+		private ObservationOverhead observationOverhead;
+	}
+
+	/**
+	 * First notified on start and scope opening, last notified on stop and scope closing
+	 */
+	private final class FirstHandler implements ObservationHandler<Observation.Context> {
+
+		@Override
+		public void onStart(Observation.Context context) {
+			if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+				context.put(Measurement.class, new Measurement());
+				markCallbacksStart();
+			}
+		}
+
+		@Override
+		public void onScopeOpened(Observation.Context context) {
+			if (context.containsKey(Measurement.class)) {
+				markCallbacksStart();
+			}
+		}
+
+		@Override
+		public void onScopeClosed(Observation.Context context) {
+			Measurement measurement = context.get(Measurement.class);
+			if (measurement != null) {
+				long nanos = callbacksNanos();
+				if (nanos >= 0) {
+					measurement.scopeNanos += nanos;
+				}
+			}
+		}
+
+		@Override
+		public void onStop(Observation.Context context) {
+			Measurement measurement = context.get(Measurement.class);
+			if (measurement == null) {
+				return;
+			}
+			long stopNanos = callbacksNanos();
+			ObservationOverhead observationOverhead = measurement.observationOverhead;
+			// Measurement is complete only when last handler was registered before observation start
+			if (observationOverhead != null && measurement.startNanos >= 0 && stopNanos >= 0) {
+				observationOverhead.handlers(Phase.START).record(measurement.startNanos, TimeUnit.NANOSECONDS);
+				observationOverhead.handlers(Phase.STOP).record(stopNanos, TimeUnit.NANOSECONDS);
+				observationOverhead.handlers(Phase.SCOPE).record(measurement.scopeNanos, TimeUnit.NANOSECONDS);
+				if (measurement.recordingSpan) {
+					observationOverhead.attributes.record(measurement.attributes);
+					observationOverhead.baggage.record(measurement.baggage);
+				}
+			}
+		}
+
+		@Override
+		public boolean supportsContext(Observation.Context context) {
+			return true;
+		}
+	}
+
+	/**
+	 * Last notified on start and scope opening, first notified on stop and scope closing
+	 */
+	private final class LastHandler implements ObservationHandler<Observation.Context> {
+
+		@Override
+		public void onStart(Observation.Context context) {
+			Measurement measurement = context.get(Measurement.class);
+			if (measurement != null) {
+				measurement.startNanos = callbacksNanos();
+			}
+		}
+
+		@Override
+		public void onScopeOpened(Observation.Context context) {
+			Measurement measurement = context.get(Measurement.class);
+			if (measurement != null) {
+				long nanos = callbacksNanos();
+				if (nanos >= 0) {
+					measurement.scopeNanos += nanos;
+				}
+				// Baggage in scope of the span
+				measurement.baggage = Math.max(measurement.baggage, Baggage.current().size());
+			}
+		}
+
+		@Override
+		public void onScopeClosed(Observation.Context context) {
+			if (context.containsKey(Measurement.class)) {
+				markCallbacksStart();
+			}
+		}
+
+		@Override
+		public void onStop(Observation.Context context) {
+			// Before tracing handler ends the span (ended span is no longer recording)
+			ObservationOverhead observationOverhead = observationOverhead(context);
+			boolean recordingSpan = observationOverhead != null && recordingSpan(context);
+			if (recordingSpan) {
+				observationOverhead.spans.increment();
+			}
+			Measurement measurement = context.get(Measurement.class);
+			if (measurement != null) {
+				measurement.observationOverhead = observationOverhead;
+				measurement.recordingSpan = recordingSpan;
+				// Key values as they are when tracing handler tags the span
+				measurement.attributes = size(context.getLowCardinalityKeyValues()) + size(context.getHighCardinalityKeyValues());
+				measurement.baggage = Math.max(measurement.baggage, Baggage.current().size());
+				markCallbacksStart();
+			}
+		}
+
+		@Override
+		public boolean supportsContext(Observation.Context context) {
+			return true;
+		}
+	}
+}
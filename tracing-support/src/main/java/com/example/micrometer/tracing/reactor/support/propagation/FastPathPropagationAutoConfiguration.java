@@ -0,0 +1,40 @@
+package com.example.micrometer.tracing.reactor.support.propagation;
+
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.propagation.BaggageTextMapPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Fast-path propagation (tracing.propagation.fast-path), replacing Spring Boot ContextPropagators
+ * <br/>
+ * Same formats (management.tracing.propagation) and baggage (management.tracing.baggage) as Spring Boot.
+ */
+@AutoConfiguration(before = OpenTelemetryTracingAutoConfiguration.class)
+@ConditionalOnEnabledTracing
+@ConditionalOnProperty(prefix = "tracing.propagation", name = "fast-path", matchIfMissing = true)
+@EnableConfigurationProperties(TracingProperties.class)
+public class FastPathPropagationAutoConfiguration {
+
+	@Bean
+	public ContextPropagators fastPathContextPropagators(TracingProperties tracingProperties, OtelCurrentTraceContext otelCurrentTraceContext) {
+		TracingProperties.Propagation propagation = tracingProperties.getPropagation();
+		TracingProperties.Baggage baggage = tracingProperties.getBaggage();
+
+		BaggageTextMapPropagator baggagePropagator = baggage.isEnabled()
+				? new BaggageTextMapPropagator(baggage.getRemoteFields(), new OtelBaggageManager(otelCurrentTraceContext, baggage.getRemoteFields(), baggage.getTagFields()))
+				: null;
+		// Same as Spring Boot : management.tracing.propagation.type overrides consume and produce
+		return ContextPropagators.create(FastPathTextMapPropagator.create(
+				propagation.getType() != null ? propagation.getType() : propagation.getConsume(),
+				propagation.getType() != null ? propagation.getType() : propagation.getProduce(),
+				baggagePropagator));
+	}
+}
@@ -0,0 +1,194 @@
+package com.example.micrometer.tracing.reactor.support.propagation;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.extension.trace.propagation.B3Propagator;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties.Propagation.PropagationType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replacement of Spring Boot CompositeTextMapPropagator : instead of running every consumed format extractor until one of them
+ * finds a context, the header of each consumed format is looked up once and only the matching extractor runs.
+ * <br/>
+ * A header present with an invalid value (e.g. malformed traceparent) falls through to the next consumed format, as with CompositeTextMapPropagator.
+ * <br/>
+ * Header lookups are cached for the extraction (the matching extractor reads the same header again).
+ * W3C trace context is injected by W3CTraceparentInjector.
+ */
+public final class FastPathTextMapPropagator implements TextMapPropagator {
+
+	private static final String B3_SINGLE_HEADER = "b3";
+	private static final String B3_TRACE_ID_HEADER = "X-B3-TraceId";
+
+	private final List<Route> routes;
+	private final List<TextMapPropagator> injectors;
+	private final List<TextMapPropagator> baggagePropagators;
+	private final Collection<String> fields;
+
+	private FastPathTextMapPropagator(List<Route> routes, List<TextMapPropagator> injectors, List<TextMapPropagator> baggagePropagators) {
+		this.routes = routes;
+		this.injectors = injectors;
+		this.baggagePropagators = baggagePropagators;
+
+		Set<String> allFields = new LinkedHashSet<>();
+		routes.forEach(route -> allFields.addAll(route.extractor().fields()));
+		injectors.forEach(injector -> allFields.addAll(injector.fields()));
+		baggagePropagators.forEach(baggagePropagator -> allFields.addAll(baggagePropagator.fields()));
+		this.fields = List.copyOf(allFields);
+	}
+
+	/**
+	 * @param consumedTypes     formats extracted, by priority
+	 * @param producedTypes     formats injected
+	 * @param baggagePropagator propagator of baggage remote fields (null = baggage disabled, W3C baggage header is not propagated either)
+	 */
+	public static FastPathTextMapPropagator create(List<PropagationType> consumedTypes, List<PropagationType> producedTypes, TextMapPropagator baggagePropagator) {
+		List<Route> routes = new ArrayList<>();
+		for (PropagationType consumedType : consumedTypes) {
+			Route route = switch (consumedType) {
+				case W3C -> new Route(W3CTraceparentInjector.getInstance(), W3CTraceparentInjector.TRACEPARENT);
+				// B3 extractor reads both single and multi headers formats
+				case B3, B3_MULTI -> new Route(B3Propagator.injectingSingleHeader(), B3_SINGLE_HEADER, B3_TRACE_ID_HEADER);
+			};
+			if (routes.stream().noneMatch(existing -> existing.sameHeaders(route))) {
+				routes.add(route);
+			}
+		}
+
+		List<TextMapPropagator> injectors = producedTypes.stream()
+				.map(producedType -> switch (producedType) {
+					case W3C -> (TextMapPropagator) W3CTraceparentInjector.getInstance();
+					case B3 -> B3Propagator.injectingSingleHeader();
+					case B3_MULTI -> B3Propagator.injectingMultiHeaders();
+				})
+				.toList();
+
+		List<TextMapPropagator> baggagePropagators = new ArrayList<>();
+		if (baggagePropagator != null) {
+			if (consumedTypes.contains(PropagationType.W3C) || producedTypes.contains(PropagationType.W3C)) {
+				baggagePropagators.add(W3CBaggagePropagator.getInstance());
+			}
+			baggagePropagators.add(baggagePropagator);
+		}
+
+		return new FastPathTextMapPropagator(List.copyOf(routes), injectors, List.copyOf(baggagePropagators));
+	}
+
+	@Override
+	public Collection<String> fields() {
+		return this.fields;
+	}
+
+	@Override
+	public <C> void inject(Context context, C carrier, TextMapSetter<C> setter) {
+		if (context == null || setter == null) {
+			return;
+		}
+		for (TextMapPropagator injector : this.injectors) {
+			injector.inject(context, carrier, setter);
+		}
+		for (TextMapPropagator baggagePropagator : this.baggagePropagators) {
+			baggagePropagator.inject(context, carrier, setter);
+		}
+	}
+
+	@Override
+	public <C> Context extract(Context context, C carrier, TextMapGetter<C> getter) {
+		if (context == null) {
+			return Context.root();
+		}
+		if (carrier == null || getter == null) {
+			return context;
+		}
+
+		CachingGetter<C> cachingGetter = new CachingGetter<>(getter);
+		Context result = context;
+		for (Route route : this.routes) {
+			if (route.matches(carrier, cachingGetter)) {
+				Context extracted = route.extractor().extract(context, carrier, cachingGetter);
+				if (extracted != context && Span.fromContext(extracted).getSpanContext().isValid()) {
+					result = extracted;
+					break;
+				}
+			}
+		}
+		for (TextMapPropagator baggagePropagator : this.baggagePropagators) {
+			result = baggagePropagator.extract(result, carrier, cachingGetter);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "FastPathTextMapPropagator{routes=" + this.routes + ", injectors=" + this.injectors + ", baggagePropagators=" + this.baggagePropagators + "}";
+	}
+
+	/**
+	 * Extractor used when one of its headers is present
+	 */
+	private record Route(TextMapPropagator extractor, String... headers) {
+
+		<C> boolean matches(C carrier, TextMapGetter<C> getter) {
+			for (String header : this.headers) {
+				if (getter.get(carrier, header) != null) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		boolean sameHeaders(Route other) {
+			return List.of(this.headers).equals(List.of(other.headers));
+		}
+
+		@Override
+		public String toString() {
+			return String.join("|", this.headers) + "->" + this.extractor;
+		}
+	}
+
+	/**
+	 * Remembers the last looked up headers (carrier is the same during an extraction)
+	 */
+	private static final class CachingGetter<C> implements TextMapGetter<C> {
+
+		private static final int SIZE = 4;
+
+		private final TextMapGetter<C> delegate;
+		private final String[] keys = new String[SIZE];
+		private final String[] values = new String[SIZE];
+		private int next;
+
+		private CachingGetter(TextMapGetter<C> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Iterable<String> keys(C carrier) {
+			return this.delegate.keys(carrier);
+		}
+
+		@Override
+		public String get(C carrier, String key) {
+			for (int i = 0; i < SIZE; i++) {
+				if (key.equals(this.keys[i])) {
+					return this.values[i];
+				}
+			}
+			String value = this.delegate.get(carrier, key);
+			int slot = this.next++ % SIZE;
+			this.keys[slot] = key;
+			this.values[slot] = value;
+			return value;
+		}
+	}
+}
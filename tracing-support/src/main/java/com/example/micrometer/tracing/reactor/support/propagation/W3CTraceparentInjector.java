@@ -0,0 +1,68 @@
+package com.example.micrometer.tracing.reactor.support.propagation;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+
+import java.util.Collection;
+
+/**
+ * Lean W3C trace context injector : traceparent is built with a single String concatenation from the ids cached by the SpanContext.
+ * <br/>
+ * Spans with a trace state (rare, tracestate header) and extraction are delegated to W3CTraceContextPropagator.
+ */
+public final class W3CTraceparentInjector implements TextMapPropagator {
+
+	static final String TRACEPARENT = "traceparent";
+
+	private static final String VERSION_PREFIX = "00-";
+	private static final W3CTraceparentInjector INSTANCE = new W3CTraceparentInjector();
+
+	private final W3CTraceContextPropagator w3cTraceContextPropagator = W3CTraceContextPropagator.getInstance();
+
+	private W3CTraceparentInjector() {
+	}
+
+	public static W3CTraceparentInjector getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public Collection<String> fields() {
+		return this.w3cTraceContextPropagator.fields();
+	}
+
+	@Override
+	public <C> void inject(Context context, C carrier, TextMapSetter<C> setter) {
+		if (context == null || setter == null) {
+			return;
+		}
+
+		SpanContext spanContext = Span.fromContext(context).getSpanContext();
+		if (!spanContext.isValid()) {
+			return;
+		}
+		if (!spanContext.getTraceState().isEmpty()) {
+			this.w3cTraceContextPropagator.inject(context, carrier, setter);
+			return;
+		}
+
+		// Every trace flag is propagated (sampled and future flags), asHex is cached by TraceFlags
+		setter.set(carrier, TRACEPARENT, VERSION_PREFIX + spanContext.getTraceId() + '-' + spanContext.getSpanId()
+				+ '-' + spanContext.getTraceFlags().asHex());
+	}
+
+	@Override
+	public <C> Context extract(Context context, C carrier, TextMapGetter<C> getter) {
+		return this.w3cTraceContextPropagator.extract(context, carrier, getter);
+	}
+
+	@Override
+	public String toString() {
+		return "W3CTraceparentInjector";
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.micrometer.tracing.reactor.support.rsocket;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * Decodes a Double from 8 bytes (RSocketMimeTypes.BINARY_DOUBLE), a payload per value
+ */
+public class BinaryDoubleDecoder extends AbstractDataBufferDecoder<Double> {
+
+	public BinaryDoubleDecoder() {
+		super(RSocketMimeTypes.BINARY_DOUBLE);
+	}
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+		return Double.class.equals(elementType.toClass()) && super.canDecode(elementType, mimeType);
+	}
+
+	@Override
+	public Double decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints) {
+		try {
+			if (buffer.readableByteCount() != Double.BYTES) {
+				throw new DecodingException("Expected " + Double.BYTES + " bytes, got " + buffer.readableByteCount());
+			}
+			long bits = 0;
+			for (int i = 0; i < Double.BYTES; i++) {
+				bits = (bits << Byte.SIZE) | (buffer.read() & 0xFF);
+			}
+			return Double.longBitsToDouble(bits);
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+}
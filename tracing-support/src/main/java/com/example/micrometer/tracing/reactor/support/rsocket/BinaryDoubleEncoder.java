@@ -0,0 +1,43 @@
+package com.example.micrometer.tracing.reactor.support.rsocket;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Encodes a Double in 8 bytes (RSocketMimeTypes.BINARY_DOUBLE), instead of a JSON text
+ */
+public class BinaryDoubleEncoder extends AbstractEncoder<Double> {
+
+	public BinaryDoubleEncoder() {
+		super(RSocketMimeTypes.BINARY_DOUBLE);
+	}
+
+	@Override
+	public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+		return Double.class.equals(elementType.toClass()) && super.canEncode(elementType, mimeType);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends Double> inputStream, DataBufferFactory bufferFactory,
+								   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+	}
+
+	@Override
+	public DataBuffer encodeValue(Double value, DataBufferFactory bufferFactory,
+								  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+		long bits = Double.doubleToRawLongBits(value);
+		DataBuffer buffer = bufferFactory.allocateBuffer(Double.BYTES);
+		for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+			buffer.write((byte) (bits >>> shift));
+		}
+		return buffer;
+	}
+}
@@ -0,0 +1,28 @@
+package com.example.micrometer.tracing.reactor.support.rsocket;
+
+import org.springframework.util.MimeType;
+
+/**
+ * MIME types of RSocket payloads exchanged between reactive-front and reactive-delegate
+ */
+public final class RSocketMimeTypes {
+
+	/**
+	 * Data : a double as 8 bytes (IEEE 754, big-endian)
+	 */
+	public static final MimeType BINARY_DOUBLE = new MimeType("application", "x.binary-double");
+
+	private static final String PROPAGATION_FIELD_TYPE = "message";
+	private static final String PROPAGATION_FIELD_SUBTYPE_PREFIX = "x.tracing.";
+
+	private RSocketMimeTypes() {
+	}
+
+	/**
+	 * @param field propagation field (e.g. traceparent, baggage)
+	 * @return MIME type of the composite metadata entry carrying this field
+	 */
+	public static MimeType propagationField(String field) {
+		return new MimeType(PROPAGATION_FIELD_TYPE, PROPAGATION_FIELD_SUBTYPE_PREFIX + field);
+	}
+}
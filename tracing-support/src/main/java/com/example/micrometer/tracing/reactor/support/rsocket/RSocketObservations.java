@@ -0,0 +1,127 @@
+package com.example.micrometer.tracing.reactor.support.rsocket;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Client and server observations of RSocket requests, with trace context and baggage propagated in composite metadata
+ * (an entry per propagation field, MIME type RSocketMimeTypes.propagationField(field)).
+ * <br/>
+ * Propagation is done by the propagating tracing handlers (SenderContext / ReceiverContext), as for HTTP :
+ * same formats (management.tracing.propagation) and same baggage as WebClient requests.
+ * <br/>
+ * Observations : rsocket.client.requests, rsocket.server.requests (low cardinality key values rsocket.route, rsocket.interaction)
+ */
+public class RSocketObservations {
+
+	public static final String CLIENT_OBSERVATION_NAME = "rsocket.client.requests";
+	public static final String SERVER_OBSERVATION_NAME = "rsocket.server.requests";
+	private static final String ROUTE_KEY = "rsocket.route";
+	private static final String INTERACTION_KEY = "rsocket.interaction";
+	private static final String REQUEST_RESPONSE = "request-response";
+	private static final String REQUEST_CHANNEL = "request-channel";
+
+	private final ObservationRegistry observationRegistry;
+	private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+	public RSocketObservations(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * @param request sends the request with the given propagation fields (cf metadata(headers))
+	 */
+	public <T> Mono<T> requestResponse(String route, String remoteAddress, Function<HttpHeaders, Mono<T>> request) {
+		return Mono.from(requested(route, remoteAddress, REQUEST_RESPONSE, request));
+	}
+
+	/**
+	 * @param request sends the request with the given propagation fields (cf metadata(headers))
+	 */
+	public <T> Flux<T> requestChannel(String route, String remoteAddress, Function<HttpHeaders, Flux<T>> request) {
+		return requested(route, remoteAddress, REQUEST_CHANNEL, request);
+	}
+
+	/**
+	 * @param metadata extracted metadata of the request (@Headers), propagation fields included (cf RSocketTracingAutoConfiguration)
+	 */
+	public <T> Mono<T> respond(String route, Map<String, Object> metadata, Mono<T> response) {
+		return Mono.from(observed(() -> serverObservation(route, REQUEST_RESPONSE, metadata), response));
+	}
+
+	/**
+	 * @param metadata extracted metadata of the request (@Headers), propagation fields included (cf RSocketTracingAutoConfiguration)
+	 * @param handler  computes the response from inbound values, whose signals restore ThreadLocals (observation, baggage)
+	 *                 with context-propagation auto
+	 */
+	public <T, R> Flux<R> respondChannel(String route, Map<String, Object> metadata, Flux<T> values, Function<Flux<T>, Flux<R>> handler) {
+		// Inbound payloads are signaled by the transport without ThreadLocals : a plain Publisher source is wrapped by Reactor
+		// to restore them from the Reactor Context of its subscriber
+		Publisher<T> inbound = values::subscribe;
+		return observed(() -> serverObservation(route, REQUEST_CHANNEL, metadata), handler.apply(Flux.from(inbound)));
+	}
+
+	/**
+	 * @return composite metadata entries of propagation fields, for RSocketRequester.RequestSpec.metadata()
+	 */
+	public static Consumer<RSocketRequester.MetadataSpec<?>> metadata(HttpHeaders headers) {
+		return metadataSpec -> headers.forEach((field, values) ->
+				values.forEach(value -> metadataSpec.metadata(value, RSocketMimeTypes.propagationField(field))));
+	}
+
+	private <T> Flux<T> requested(String route, String remoteAddress, String interaction, Function<HttpHeaders, ? extends Publisher<T>> request) {
+		return Flux.deferContextual(contextView -> {
+			SenderContext<HttpHeaders> context = new SenderContext<>(HttpHeaders::set, Kind.CLIENT);
+			context.setCarrier(new HttpHeaders());
+			context.setRemoteServiceAddress(remoteAddress);
+			Observation observation = Observation.createNotStarted(CLIENT_OBSERVATION_NAME, () -> context, this.observationRegistry)
+					.contextualName(route)
+					.lowCardinalityKeyValue(ROUTE_KEY, route)
+					.lowCardinalityKeyValue(INTERACTION_KEY, interaction);
+			// Parent observation and baggage injected in metadata are read from ThreadLocals, restored from Reactor Context
+			// (context-propagation limited or auto)
+			try (ContextSnapshot.Scope scope = this.contextSnapshotFactory.setThreadLocalsFrom(contextView)) {
+				observation.start();
+			}
+			return stopped(observation, request.apply(context.getCarrier()));
+		});
+	}
+
+	private Observation serverObservation(String route, String interaction, Map<String, Object> metadata) {
+		ReceiverContext<Map<String, Object>> context = new ReceiverContext<>(
+				(carrier, field) -> carrier.get(field) instanceof String value ? value : null, Kind.SERVER);
+		context.setCarrier(metadata);
+		return Observation.createNotStarted(SERVER_OBSERVATION_NAME, () -> context, this.observationRegistry)
+				.contextualName(route)
+				.lowCardinalityKeyValue(ROUTE_KEY, route)
+				.lowCardinalityKeyValue(INTERACTION_KEY, interaction);
+	}
+
+	private <T> Flux<T> observed(Supplier<Observation> observationSupplier, Publisher<T> source) {
+		return Flux.defer(() -> stopped(observationSupplier.get().start(), source));
+	}
+
+	// Observation is current in Reactor Context of source (parent of its observations)
+	private static <T> Flux<T> stopped(Observation observation, Publisher<T> source) {
+		return Flux.from(source)
+				.doOnError(observation::error)
+				.doFinally(signalType -> observation.stop())
+				.contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+	}
+}
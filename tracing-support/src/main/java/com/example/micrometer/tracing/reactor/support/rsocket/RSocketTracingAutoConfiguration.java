@@ -0,0 +1,36 @@
+package com.example.micrometer.tracing.reactor.support.rsocket;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.rsocket.RSocketRequester;
+
+import java.util.List;
+
+/**
+ * RSocket between reactive-front and reactive-delegate : binary Double codecs, extraction of propagation fields from metadata
+ * (available in @Headers under the field name), RSocketObservations
+ */
+@AutoConfiguration
+@ConditionalOnClass(RSocketRequester.class)
+public class RSocketTracingAutoConfiguration {
+
+	@Bean
+	public RSocketObservations rSocketObservations(ObservationRegistry observationRegistry) {
+		return new RSocketObservations(observationRegistry);
+	}
+
+	@Bean
+	public RSocketStrategiesCustomizer tracingRSocketStrategiesCustomizer(ObjectProvider<Propagator> propagator) {
+		List<String> propagationFields = propagator.getIfAvailable(() -> Propagator.NOOP).fields();
+		return strategies -> strategies
+				.encoder(new BinaryDoubleEncoder())
+				.decoder(new BinaryDoubleDecoder())
+				.metadataExtractorRegistry(registry -> propagationFields.forEach(field ->
+						registry.metadataToExtract(RSocketMimeTypes.propagationField(field), String.class, field)));
+	}
+}
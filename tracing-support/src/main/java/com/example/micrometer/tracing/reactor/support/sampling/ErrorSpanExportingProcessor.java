@@ -0,0 +1,138 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+
+/**
+ * Export spans in error of unsampled traces (recorded with RECORD_ONLY decision by RouteRateLimitingSampler).
+ * <br/>
+ * Spans in error are handed to the BatchSpanProcessor exporting sampled spans (instrumentedBatchSpanProcessor) :
+ * same queue, batches, exporter metrics and span filters, export runs on the BatchSpanProcessor thread (never on the event loop).
+ */
+public class ErrorSpanExportingProcessor implements SpanProcessor {
+
+	// Key value set by Spring HTTP observation conventions
+	private static final AttributeKey<String> STATUS_ATTRIBUTE = AttributeKey.stringKey("status");
+	// Status of HTTP client spans without response (connection refused, timeout...)
+	private static final String CLIENT_ERROR_STATUS = "CLIENT_ERROR";
+
+	private final BatchSpanProcessor batchSpanProcessor;
+
+	public ErrorSpanExportingProcessor(BatchSpanProcessor batchSpanProcessor) {
+		this.batchSpanProcessor = batchSpanProcessor;
+	}
+
+	@Override
+	public void onStart(Context parentContext, ReadWriteSpan span) {
+	}
+
+	@Override
+	public boolean isStartRequired() {
+		return false;
+	}
+
+	@Override
+	public void onEnd(ReadableSpan span) {
+		if (span.getSpanContext().isSampled()) {
+			return;
+		}
+
+		if (isError(span)) {
+			// BatchSpanProcessor only queues sampled spans
+			this.batchSpanProcessor.onEnd(new SampledReadableSpan(span));
+		}
+	}
+
+	/**
+	 * HTTP spans (status attribute) are decided on their status only : no SpanData copy for the unsampled requests of every route.
+	 * Only spans without status attribute (local, RSocket...) are copied to read their status code.
+	 */
+	static boolean isError(ReadableSpan span) {
+		String status = span.getAttribute(STATUS_ATTRIBUTE);
+		if (status != null) {
+			return status.startsWith("5") || CLIENT_ERROR_STATUS.equals(status);
+		}
+		return span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+	}
+
+	@Override
+	public boolean isEndRequired() {
+		return true;
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		// BatchSpanProcessor is registered in (and shut down by) SdkTracerProvider
+		return CompletableResultCode.ofSuccess();
+	}
+
+	/**
+	 * Ended span seen as sampled by BatchSpanProcessor, exported SpanData is unchanged (trace flags of the unsampled trace)
+	 */
+	private record SampledReadableSpan(ReadableSpan delegate) implements ReadableSpan {
+
+		@Override
+		public SpanContext getSpanContext() {
+			SpanContext spanContext = this.delegate.getSpanContext();
+			return SpanContext.create(spanContext.getTraceId(), spanContext.getSpanId(), TraceFlags.getSampled(), spanContext.getTraceState());
+		}
+
+		@Override
+		public SpanContext getParentSpanContext() {
+			return this.delegate.getParentSpanContext();
+		}
+
+		@Override
+		public String getName() {
+			return this.delegate.getName();
+		}
+
+		@Override
+		public SpanData toSpanData() {
+			return this.delegate.toSpanData();
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+			return this.delegate.getInstrumentationLibraryInfo();
+		}
+
+		@Override
+		public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+			return this.delegate.getInstrumentationScopeInfo();
+		}
+
+		@Override
+		public boolean hasEnded() {
+			return this.delegate.hasEnded();
+		}
+
+		@Override
+		public long getLatencyNanos() {
+			return this.delegate.getLatencyNanos();
+		}
+
+		@Override
+		public SpanKind getKind() {
+			return this.delegate.getKind();
+		}
+
+		@Override
+		public <T> T getAttribute(AttributeKey<T> key) {
+			return this.delegate.getAttribute(key);
+		}
+	}
+}
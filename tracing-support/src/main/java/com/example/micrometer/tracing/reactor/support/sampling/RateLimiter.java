@@ -0,0 +1,43 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+/**
+ * Token bucket : up to permitsPerSecond permits per second, bursts up to max(1, permitsPerSecond) permits
+ * (0 = no permit, negative = unlimited)
+ */
+class RateLimiter {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final double permitsPerSecond;
+	private final double maxPermits;
+	private double availablePermits;
+	private long lastRefillNanos;
+
+	RateLimiter(double permitsPerSecond) {
+		this.permitsPerSecond = permitsPerSecond;
+		this.maxPermits = Math.max(1.0, permitsPerSecond);
+		this.availablePermits = this.maxPermits;
+		this.lastRefillNanos = System.nanoTime();
+	}
+
+	boolean tryAcquire() {
+		if (this.permitsPerSecond < 0) {
+			return true;
+		}
+		if (this.permitsPerSecond == 0) {
+			return false;
+		}
+
+		synchronized (this) {
+			long now = System.nanoTime();
+			this.availablePermits = Math.min(this.maxPermits,
+					this.availablePermits + (now - this.lastRefillNanos) * this.permitsPerSecond / NANOS_PER_SECOND);
+			this.lastRefillNanos = now;
+			if (this.availablePermits < 1.0) {
+				return false;
+			}
+			this.availablePermits -= 1.0;
+			return true;
+		}
+	}
+}
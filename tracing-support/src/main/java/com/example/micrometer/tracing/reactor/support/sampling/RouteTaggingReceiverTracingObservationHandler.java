@@ -0,0 +1,47 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Server span is started before request is routed and its attributes are set when it ends :
+ * request path is added before start so that RouteRateLimitingSampler can sample per route (WebFlux and servlet requests).
+ */
+public class RouteTaggingReceiverTracingObservationHandler extends PropagatingReceiverTracingObservationHandler<ReceiverContext<?>> {
+
+	// Servlet API is absent from WebFlux applications
+	private static final boolean SERVLET_PRESENT = ClassUtils.isPresent("jakarta.servlet.http.HttpServletRequest",
+			RouteTaggingReceiverTracingObservationHandler.class.getClassLoader());
+
+	public RouteTaggingReceiverTracingObservationHandler(Tracer tracer, Propagator propagator) {
+		super(tracer, propagator);
+	}
+
+	@Override
+	public Span.Builder customizeExtractedSpan(ReceiverContext<?> context, Span.Builder builder) {
+		if (context.getCarrier() instanceof ServerHttpRequest request) {
+			builder.tag(RouteRateLimitingSampler.ROUTE_ATTRIBUTE.getKey(), request.getPath().value());
+		} else if (SERVLET_PRESENT) {
+			ServletRequests.tagRoute(context.getCarrier(), builder);
+		}
+		return builder;
+	}
+
+	/**
+	 * Loaded only when servlet API is present
+	 */
+	private static final class ServletRequests {
+
+		static void tagRoute(Object carrier, Span.Builder builder) {
+			if (carrier instanceof HttpServletRequest request) {
+				builder.tag(RouteRateLimitingSampler.ROUTE_ATTRIBUTE.getKey(), request.getRequestURI());
+			}
+		}
+	}
+}
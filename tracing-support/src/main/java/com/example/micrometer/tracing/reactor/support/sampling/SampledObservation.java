@@ -0,0 +1,192 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.reactivestreams.Publisher;
+import reactor.core.observability.DefaultSignalListener;
+import reactor.core.observability.SignalListener;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.SignalType;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Function;
+
+/**
+ * Replacement of Micrometer.observation(registry) for .tap() : observation is not created at all when parent trace is not sampled
+ * (no span, no meter, no handler call).
+ * <br/>
+ * Observation.NOOP returned by ObservationPredicates is not put in the Context :
+ * with Micrometer.observation(registry) it would hide parent observation from next operators (= no traceId/spanId in logs).
+ * <br/>
+ * createNotStarted(name, registry) applies the same rule to blocking code (parent = current observation of the thread).
+ */
+public final class SampledObservation {
+
+	@SuppressWarnings("rawtypes")
+	private static final SignalListener NOOP_LISTENER = new DefaultSignalListener<>() {
+	};
+
+	private SampledObservation() {
+	}
+
+	public static <T> SignalListenerFactory<T, ?> observation(ObservationRegistry observationRegistry) {
+		return sampled(Micrometer.observation(observationRegistry));
+	}
+
+	/**
+	 * @param observationSupplier creates the observation (name, key values set before start), e.g. to set high cardinality key values
+	 *                            which .tag(key, value) cannot declare
+	 */
+	public static <T> SignalListenerFactory<T, ?> observation(ObservationRegistry observationRegistry,
+															  Function<ObservationRegistry, Observation> observationSupplier) {
+		return sampled(Micrometer.observation(observationRegistry, observationSupplier));
+	}
+
+	/**
+	 * @return Observation.NOOP when current observation is not sampled, otherwise same as Observation.createNotStarted(name, registry)
+	 */
+	public static Observation createNotStarted(String name, ObservationRegistry observationRegistry) {
+		if (isUnsampled(observationRegistry.getCurrentObservation())) {
+			return Observation.NOOP;
+		}
+		return Observation.createNotStarted(name, observationRegistry);
+	}
+
+	/**
+	 * Same as createNotStarted(name, registry) with an explicit parent, e.g. read from Reactor Context
+	 *
+	 * @return Observation.NOOP when parent observation is not sampled, otherwise a not started observation child of parentObservation
+	 */
+	public static Observation createNotStarted(String name, Observation parentObservation, ObservationRegistry observationRegistry) {
+		if (isUnsampled(parentObservation)) {
+			return Observation.NOOP;
+		}
+		return Observation.createNotStarted(name, observationRegistry)
+				.parentObservation(parentObservation);
+	}
+
+	private static <T, STATE> SignalListenerFactory<T, STATE> sampled(SignalListenerFactory<T, STATE> observationListenerFactory) {
+		return new SignalListenerFactory<>() {
+			@Override
+			public STATE initializePublisherState(Publisher<? extends T> source) {
+				return observationListenerFactory.initializePublisherState(source);
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, STATE publisherContext) {
+				if (isParentUnsampled(listenerContext)) {
+					return NOOP_LISTENER;
+				}
+				return new NoopObservationHidingListener<>(observationListenerFactory.createListener(source, listenerContext, publisherContext));
+			}
+		};
+	}
+
+	private static boolean isParentUnsampled(ContextView contextView) {
+		return isUnsampled(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+	}
+
+	private static boolean isUnsampled(Observation parentObservation) {
+		if (parentObservation == null) {
+			return false;
+		}
+
+		TracingObservationHandler.TracingContext tracingContext = parentObservation.getContext().get(TracingObservationHandler.TracingContext.class);
+		Span parentSpan = tracingContext != null ? tracingContext.getSpan() : null;
+		return parentSpan != null && Boolean.FALSE.equals(parentSpan.context().sampled());
+	}
+
+	/**
+	 * Delegates to Reactor observation listener, except for Context : parent observation is kept if observation is Observation.NOOP
+	 */
+	private record NoopObservationHidingListener<T>(SignalListener<T> delegate) implements SignalListener<T> {
+
+		@Override
+		public Context addToContext(Context originalContext) {
+			Context context = this.delegate.addToContext(originalContext);
+			Observation observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+			return observation != null && observation.isNoop() ? originalContext : context;
+		}
+
+		@Override
+		public void doFirst() throws Throwable {
+			this.delegate.doFirst();
+		}
+
+		@Override
+		public void doFinally(SignalType terminationType) throws Throwable {
+			this.delegate.doFinally(terminationType);
+		}
+
+		@Override
+		public void doOnSubscription() throws Throwable {
+			this.delegate.doOnSubscription();
+		}
+
+		@Override
+		public void doOnFusion(int negotiatedFusion) throws Throwable {
+			this.delegate.doOnFusion(negotiatedFusion);
+		}
+
+		@Override
+		public void doOnRequest(long requested) throws Throwable {
+			this.delegate.doOnRequest(requested);
+		}
+
+		@Override
+		public void doOnCancel() throws Throwable {
+			this.delegate.doOnCancel();
+		}
+
+		@Override
+		public void doOnNext(T value) throws Throwable {
+			this.delegate.doOnNext(value);
+		}
+
+		@Override
+		public void doOnComplete() throws Throwable {
+			this.delegate.doOnComplete();
+		}
+
+		@Override
+		public void doOnError(Throwable error) throws Throwable {
+			this.delegate.doOnError(error);
+		}
+
+		@Override
+		public void doAfterComplete() throws Throwable {
+			this.delegate.doAfterComplete();
+		}
+
+		@Override
+		public void doAfterError(Throwable error) throws Throwable {
+			this.delegate.doAfterError(error);
+		}
+
+		@Override
+		public void doOnMalformedOnNext(T value) throws Throwable {
+			this.delegate.doOnMalformedOnNext(value);
+		}
+
+		@Override
+		public void doOnMalformedOnError(Throwable error) throws Throwable {
+			this.delegate.doOnMalformedOnError(error);
+		}
+
+		@Override
+		public void doOnMalformedOnComplete() throws Throwable {
+			this.delegate.doOnMalformedOnComplete();
+		}
+
+		@Override
+		public void handleListenerError(Throwable listenerError) {
+			this.delegate.handleListenerError(listenerError);
+		}
+	}
+}
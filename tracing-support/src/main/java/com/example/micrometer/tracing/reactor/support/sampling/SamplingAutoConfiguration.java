@@ -0,0 +1,43 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Route rate limiting + parent based sampling, replacing Spring Boot probability sampler (tracing.sampling properties)
+ * <br/>
+ * Manual observations declared with .tap(SampledObservation.observation(...)) are not created for unsampled traces.
+ */
+@AutoConfiguration(before = {MicrometerTracingAutoConfiguration.class, OpenTelemetryTracingAutoConfiguration.class})
+@ConditionalOnProperty(prefix = "tracing.sampling", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(SamplingProperties.class)
+public class SamplingAutoConfiguration {
+
+	@Bean
+	public Sampler routeRateLimitingSampler(SamplingProperties samplingProperties) {
+		return new RouteRateLimitingSampler(samplingProperties);
+	}
+
+	// Replaces Spring Boot PropagatingReceiverTracingObservationHandler
+	@Bean
+	@Order(MicrometerTracingAutoConfiguration.RECEIVER_TRACING_OBSERVATION_HANDLER_ORDER)
+	public PropagatingReceiverTracingObservationHandler<?> routeTaggingReceiverTracingObservationHandler(Tracer tracer, Propagator propagator) {
+		return new RouteTaggingReceiverTracingObservationHandler(tracer, propagator);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "tracing.sampling", name = "always-sample-errors", matchIfMissing = true)
+	public ErrorSpanExportingProcessor errorSpanExportingProcessor(BatchSpanProcessor instrumentedBatchSpanProcessor) {
+		return new ErrorSpanExportingProcessor(instrumentedBatchSpanProcessor);
+	}
+}
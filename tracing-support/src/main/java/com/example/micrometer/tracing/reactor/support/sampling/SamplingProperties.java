@@ -0,0 +1,33 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Sampling of traces (replaces management.tracing.sampling.probability)
+ *
+ * @param enabled                 use route rate limiting sampler (disabled = Spring Boot probability sampler)
+ * @param defaultTracesPerSecond  maximum number of traces started per second for a route without specific limit (0 = none, negative = unlimited)
+ * @param routes                  specific limits per route
+ * @param alwaysSampleErrors      export spans in error of unsampled traces : unsampled traces are recorded (RECORD_ONLY),
+ *                                every request then builds full SDK spans (attributes, events) which are not exported,
+ *                                instead of non-recording spans. Enabled by default on purpose : errors of rate-limited routes
+ *                                are the traces worth exporting, the recording cost is measured by load-test
+ *                                (DEFAULT vs DEFAULT_DROP_UNSAMPLED), disable it when that cost matters more
+ */
+@ConfigurationProperties("tracing.sampling")
+public record SamplingProperties(@DefaultValue("true") boolean enabled,
+								 @DefaultValue("100") double defaultTracesPerSecond,
+								 @DefaultValue List<Route> routes,
+								 @DefaultValue("true") boolean alwaysSampleErrors) {
+
+	/**
+	 * @param path             request path (exact match)
+	 * @param tracesPerSecond  maximum number of traces started per second for this route (0 = none, negative = unlimited)
+	 */
+	public record Route(String path,
+						double tracesPerSecond) {
+	}
+}
@@ -0,0 +1,137 @@
+package com.example.micrometer.tracing.reactor.support.baggage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboundBaggageFilterTest {
+
+	private static final String DELEGATE_URL = "http://delegate:8080/delegate/v2/calculator/square";
+	private static final String OTHER_URL = "http://other:8080/";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void unchangedHeadersReturnedAsIs() {
+		OutboundBaggageFilter filter = filter(512, Set.of(), List.of("user", "debug"));
+		HttpHeaders headers = headers("user=alice,debug=true");
+
+		assertThat(filter.apply(DELEGATE_URL, headers)).isSameAs(headers);
+		assertThat(this.meterRegistry.get("tracing.propagation.header.bytes").tag("destination", "delegate").summary().totalAmount())
+				.isEqualTo("traceparent".length() + traceparent().length() + "baggage".length() + "user=alice,debug=true".length());
+	}
+
+	@Test
+	void localFieldsRemovedFromBaggageAndHeaders() {
+		OutboundBaggageFilter filter = filter(512, Set.of("session"), List.of());
+		HttpHeaders headers = headers("user=alice,session=s1");
+		headers.set("session", "s1");
+
+		HttpHeaders outboundHeaders = filter.apply(OTHER_URL, headers);
+
+		assertThat(outboundHeaders.get("baggage")).containsExactly("user=alice");
+		assertThat(outboundHeaders.containsKey("session")).isFalse();
+		assertThat(outboundHeaders.getFirst("traceparent")).isEqualTo(traceparent());
+		assertThat(dropped("other", "local")).isEqualTo(2);
+		// Request headers are not modified
+		assertThat(headers.getFirst("session")).isEqualTo("s1");
+	}
+
+	@Test
+	void notAllowedFieldsDroppedForDestinationOnly() {
+		OutboundBaggageFilter filter = filter(512, Set.of(), List.of("user", "debug"));
+
+		assertThat(filter.apply(DELEGATE_URL, headers("user=alice,tenant=t1,debug=true")).get("baggage"))
+				.containsExactly("user=alice,debug=true");
+		assertThat(dropped("delegate", "not-allowed")).isEqualTo(1);
+
+		// Default allowed fields are empty : every field is sent to other destinations
+		HttpHeaders otherHeaders = headers("user=alice,tenant=t1,debug=true");
+		assertThat(filter.apply(OTHER_URL, otherHeaders)).isSameAs(otherHeaders);
+	}
+
+	@Test
+	void noEntryLeftRemovesBaggageHeader() {
+		OutboundBaggageFilter filter = filter(512, Set.of("session"), List.of("user"));
+
+		HttpHeaders outboundHeaders = filter.apply(DELEGATE_URL, headers("session=s1, tenant=t1"));
+
+		assertThat(outboundHeaders.containsKey("baggage")).isFalse();
+		assertThat(outboundHeaders.getFirst("traceparent")).isEqualTo(traceparent());
+	}
+
+	@Test
+	void budgetDropsLowestPriorityFirst() {
+		// Priority = allowlist order : debug, user, tenant
+		OutboundBaggageFilter filter = filter(25, Set.of(), List.of("debug", "user", "tenant"));
+
+		// "debug=true,user=alice" = 21 bytes, ",tenant=t1" would make 31
+		HttpHeaders outboundHeaders = filter.apply(DELEGATE_URL, headers("tenant=t1,user=alice,debug=true"));
+
+		assertThat(outboundHeaders.get("baggage")).containsExactly("debug=true,user=alice");
+		assertThat(dropped("delegate", "budget")).isEqualTo(1);
+	}
+
+	@Test
+	void budgetTieBrokenByFieldName() {
+		// Every field has the same priority without allowlist
+		OutboundBaggageFilter filter = filter(15, Set.of(), List.of());
+
+		// "alpha=2,mid=3" = 13 bytes, ",zeta=1" would make 20
+		assertThat(filter.apply(OTHER_URL, headers("zeta=1,alpha=2,mid=3")).get("baggage"))
+				.containsExactly("alpha=2,mid=3");
+	}
+
+	@Test
+	void budgetCountsSeparators() {
+		// "a=1,b=2" = 7 bytes : 2 members of 3 bytes and a comma
+		HttpHeaders headers = headers("a=1,b=2");
+		assertThat(filter(7, Set.of(), List.of()).apply(OTHER_URL, headers)).isSameAs(headers);
+
+		assertThat(filter(6, Set.of(), List.of()).apply(OTHER_URL, headers("a=1,b=2")).get("baggage"))
+				.containsExactly("a=1");
+	}
+
+	@Test
+	void membersKeptWithTheirMetadata() {
+		OutboundBaggageFilter filter = filter(512, Set.of(), List.of("user"));
+
+		assertThat(filter.apply(DELEGATE_URL, headers("user=alice;ttl=1, tenant = t1")).get("baggage"))
+				.containsExactly("user=alice;ttl=1");
+	}
+
+	@Test
+	void multipleBaggageHeadersMergedInOne() {
+		OutboundBaggageFilter filter = filter(512, Set.of(), List.of());
+		HttpHeaders headers = headers("user=alice");
+		headers.add("baggage", "debug=true");
+
+		assertThat(filter.apply(OTHER_URL, headers).get("baggage")).containsExactly("user=alice,debug=true");
+	}
+
+	private OutboundBaggageFilter filter(int maxHeaderBytes, Set<String> localFields, List<String> delegateAllowedFields) {
+		BaggagePropagationProperties properties = new BaggagePropagationProperties(true, maxHeaderBytes, localFields, List.of(),
+				List.of(new BaggagePropagationProperties.Destination("delegate", "http://delegate:8080", delegateAllowedFields)));
+		return new OutboundBaggageFilter(properties, List.of("traceparent", "baggage"), this.meterRegistry);
+	}
+
+	private double dropped(String destination, String reason) {
+		return this.meterRegistry.get("tracing.baggage.dropped").tag("destination", destination).tag("reason", reason).counter().count();
+	}
+
+	private static HttpHeaders headers(String baggage) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("traceparent", traceparent());
+		headers.set("baggage", baggage);
+		return headers;
+	}
+
+	private static String traceparent() {
+		return "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+	}
+}
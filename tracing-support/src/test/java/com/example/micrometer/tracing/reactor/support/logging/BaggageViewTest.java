@@ -0,0 +1,54 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaggageViewTest {
+
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+	BaggageViewTest() {
+		this.observationRegistry.observationConfig().observationHandler(context -> true);
+	}
+
+	@Test
+	void viewStoredOncePerBaggage() {
+		Observation observation = Observation.start("request", this.observationRegistry);
+		Map<String, String> view;
+		try (Scope scope = Baggage.builder().put("user", "alice").build().makeCurrent()) {
+			view = BaggageView.current(observation);
+			assertThat(view).containsExactly(Map.entry("user", "alice"));
+			assertThat(BaggageView.current(observation)).isSameAs(view);
+		}
+
+		// New entry = new Baggage instance : view is rebuilt
+		Baggage changed = Baggage.builder().put("user", "alice").put("debug", "true").build();
+		try (Scope scope = changed.makeCurrent()) {
+			Map<String, String> changedView = BaggageView.current(observation);
+			assertThat(changedView).isNotSameAs(view).containsEntry("debug", "true");
+			assertThat(BaggageView.current(observation)).isSameAs(changedView);
+		}
+		observation.stop();
+	}
+
+	@Test
+	void viewNotStoredWithoutObservation() {
+		try (Scope scope = Baggage.builder().put("user", "alice").build().makeCurrent()) {
+			assertThat(BaggageView.current(null)).containsExactly(Map.entry("user", "alice"));
+			assertThat(BaggageView.current(Observation.NOOP)).containsExactly(Map.entry("user", "alice"));
+		}
+	}
+
+	@Test
+	void emptyBaggage() {
+		assertThat(BaggageView.current(null)).isEmpty();
+		assertThat(BaggageView.lazy()).hasToString("{}");
+	}
+}
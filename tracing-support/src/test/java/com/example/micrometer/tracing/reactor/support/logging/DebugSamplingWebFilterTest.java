@@ -0,0 +1,35 @@
+package com.example.micrometer.tracing.reactor.support.logging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DebugSamplingWebFilterTest {
+
+	private final DebugSamplingWebFilter filter = new DebugSamplingWebFilter("debug", 0.001);
+
+	@Test
+	void flaggedByExactEntry() {
+		assertThat(this.filter.isFlagged(baggage("debug=true"))).isTrue();
+		assertThat(this.filter.isFlagged(baggage("user=alice, debug = true ;ttl=1"))).isTrue();
+		assertThat(this.filter.isFlagged(baggage("user=alice", "debug=true"))).isTrue();
+	}
+
+	@Test
+	void notFlaggedByOtherKeysOrValues() {
+		assertThat(this.filter.isFlagged(new HttpHeaders())).isFalse();
+		assertThat(this.filter.isFlagged(baggage("nodebug=true"))).isFalse();
+		assertThat(this.filter.isFlagged(baggage("debug=false"))).isFalse();
+		assertThat(this.filter.isFlagged(baggage("debug=truex"))).isFalse();
+		assertThat(this.filter.isFlagged(baggage("user=debug=true"))).isFalse();
+	}
+
+	private static HttpHeaders baggage(String... values) {
+		HttpHeaders headers = new HttpHeaders();
+		for (String value : values) {
+			headers.add("baggage", value);
+		}
+		return headers;
+	}
+}
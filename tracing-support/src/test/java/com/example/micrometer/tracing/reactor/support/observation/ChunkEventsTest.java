@@ -0,0 +1,60 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkEventsTest {
+
+	private final List<String> events = new CopyOnWriteArrayList<>();
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+	ChunkEventsTest() {
+		this.observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+			@Override
+			public void onEvent(Observation.Event event, Observation.Context context) {
+				ChunkEventsTest.this.events.add(event.getContextualName());
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return true;
+			}
+		});
+	}
+
+	@Test
+	void eventPerChunkAndCountAttribute() {
+		Observation observation = Observation.start("squares", this.observationRegistry);
+
+		StepVerifier.create(ChunkEvents.addChunkEvents(Flux.range(0, 2_500), "squares.chunk", 1_000, "squares.count")
+						// Observation of the sequence is read from Reactor Context
+						.contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation)))
+				.expectNextCount(2_500)
+				.verifyComplete();
+
+		assertThat(this.events).containsExactly("squares.chunk [0, 1000[", "squares.chunk [1000, 2000[", "squares.chunk [2000, 2500[");
+		assertThat(observation.getContext().getHighCardinalityKeyValue("squares.count").getValue()).isEqualTo("2500");
+	}
+
+	@Test
+	void noEventForEmptySequence() {
+		Observation observation = Observation.start("squares", this.observationRegistry);
+
+		StepVerifier.create(ChunkEvents.addChunkEvents(Flux.empty(), "squares.chunk", 1_000, "squares.count")
+						.contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation)))
+				.verifyComplete();
+
+		assertThat(this.events).isEmpty();
+		assertThat(observation.getContext().getHighCardinalityKeyValue("squares.count").getValue()).isEqualTo("0");
+	}
+}
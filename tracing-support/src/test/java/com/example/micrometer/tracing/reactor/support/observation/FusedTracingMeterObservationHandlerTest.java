@@ -0,0 +1,225 @@
+package com.example.micrometer.tracing.reactor.support.observation;
+
+import com.example.micrometer.tracing.reactor.support.export.InMemorySpanExporter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.TracingAwareMeterObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Same observations recorded by the fused chain (FusedTracingMeterObservationHandler + UnfusedMeterObservationHandler)
+ * and by the default chain (DefaultTracingObservationHandler + TracingAwareMeterObservationHandler(DefaultMeterObservationHandler)) :
+ * spans (name, kind, attributes, events, status, parent) and meters (ids and counts) must be identical.
+ */
+class FusedTracingMeterObservationHandlerTest {
+
+	// Same instance in both chains : identical exception event (stack trace)
+	private static final IllegalStateException ERROR = new IllegalStateException("boom");
+	private static final String STACKTRACE_KEY = "exception.stacktrace";
+
+	private final Chain fused = new Chain(true);
+	private final Chain unfused = new Chain(false);
+
+	@AfterEach
+	void close() {
+		this.fused.close();
+		this.unfused.close();
+	}
+
+	@Test
+	void success() {
+		assertParity(registry -> {
+			Observation observation = Observation.createNotStarted("parity", registry)
+					.contextualName("parity-span")
+					.lowCardinalityKeyValue("low", "a")
+					.highCardinalityKeyValue("high", "1")
+					.start();
+			observation.event(Observation.Event.of("chunk", "chunk [0, 1000["));
+			observation.event(Observation.Event.of("chunk", "chunk [1000, 2000["));
+			// Added after start : not a long task timer tag, a timer and span tag
+			observation.lowCardinalityKeyValue("late", "b");
+			observation.stop();
+		});
+	}
+
+	@Test
+	void error() {
+		assertParity(registry -> {
+			Observation observation = Observation.createNotStarted("parity", registry)
+					.lowCardinalityKeyValue("low", "a")
+					.start();
+			observation.error(ERROR);
+			observation.stop();
+		});
+	}
+
+	@Test
+	void errorKeyValue() {
+		assertParity(registry -> Observation.createNotStarted("parity", registry)
+				.lowCardinalityKeyValue("error", "timeout")
+				.start()
+				.stop());
+	}
+
+	@Test
+	void nested() {
+		assertParity(registry -> {
+			Observation parent = Observation.createNotStarted("parent", registry).start();
+			Observation child = Observation.createNotStarted("child", registry)
+					.parentObservation(parent)
+					.lowCardinalityKeyValue("low", "a")
+					.start();
+			child.stop();
+			parent.stop();
+		});
+	}
+
+	@Test
+	void longTaskTimer() {
+		Observation fusedObservation = this.fused.start("parity");
+		Observation unfusedObservation = this.unfused.start("parity");
+
+		// Running : long task timers with one active task, no timer yet
+		assertThat(this.fused.meters()).isEqualTo(this.unfused.meters())
+				.containsEntry("LONG_TASK_TIMER parity.active [tag(low=a)]", 1.0);
+
+		fusedObservation.stop();
+		unfusedObservation.stop();
+
+		assertThat(this.fused.meters()).isEqualTo(this.unfused.meters())
+				.containsEntry("LONG_TASK_TIMER parity.active [tag(low=a)]", 0.0)
+				.containsEntry("TIMER parity [tag(error=none), tag(low=a)]", 1.0);
+	}
+
+	private void assertParity(Consumer<ObservationRegistry> observations) {
+		observations.accept(this.fused.registry);
+		observations.accept(this.unfused.registry);
+
+		assertThat(this.fused.spans()).isNotEmpty().isEqualTo(this.unfused.spans());
+		assertThat(this.fused.meters()).isNotEmpty().isEqualTo(this.unfused.meters());
+	}
+
+	private static final class Chain {
+
+		private final InMemorySpanExporter spanExporter = new InMemorySpanExporter(100);
+		private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+				.setSampler(Sampler.alwaysOn())
+				.addSpanProcessor(SimpleSpanProcessor.create(this.spanExporter))
+				.build();
+		private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		private final ObservationRegistry registry = ObservationRegistry.create();
+
+		private Chain(boolean fused) {
+			OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+			OtelTracer tracer = new OtelTracer(this.tracerProvider.get("parity"), currentTraceContext, event -> {
+			}, new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+			DefaultTracingObservationHandler tracingHandler = new DefaultTracingObservationHandler(tracer);
+			DefaultMeterObservationHandler meterHandler = new DefaultMeterObservationHandler(this.meterRegistry);
+
+			// Same grouping as Spring Boot ObservationHandlerGrouping : first matching tracing handler, then meter handler
+			if (fused) {
+				FusedTracingMeterObservationHandler fusedHandler = new FusedTracingMeterObservationHandler(tracer, this.meterRegistry, true);
+				this.registry.observationConfig()
+						.observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(fusedHandler, tracingHandler))
+						.observationHandler(new UnfusedMeterObservationHandler(meterHandler, tracer, fusedHandler));
+			} else {
+				this.registry.observationConfig()
+						.observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(tracingHandler))
+						.observationHandler(new TracingAwareMeterObservationHandler<>(meterHandler, tracer));
+			}
+		}
+
+		private Observation start(String name) {
+			return Observation.createNotStarted(name, this.registry)
+					.lowCardinalityKeyValue("low", "a")
+					.start();
+		}
+
+		/**
+		 * @return ended spans without ids and timestamps, parent referenced by name
+		 */
+		private List<String> spans() {
+			List<SpanData> spans = this.spanExporter.getFinishedSpans();
+			List<String> descriptions = new ArrayList<>();
+			for (SpanData span : spans) {
+				String parentName = spans.stream()
+						.filter(parent -> parent.getSpanId().equals(span.getParentSpanId()))
+						.map(SpanData::getName)
+						.findFirst()
+						.orElse(null);
+				descriptions.add(span.getName() + " kind=" + span.getKind() + " parent=" + parentName
+						+ " attributes=" + attributes(span.getAttributes())
+						+ " events=" + span.getEvents().stream().map(FusedTracingMeterObservationHandlerTest::event).toList()
+						+ " status=" + span.getStatus());
+			}
+			descriptions.sort(Comparator.naturalOrder());
+			return descriptions;
+		}
+
+		/**
+		 * @return "type name tags" -> count (timers, counters) or active tasks (long task timers)
+		 */
+		private Map<String, Double> meters() {
+			Map<String, Double> meters = new TreeMap<>();
+			for (Meter meter : this.meterRegistry.getMeters()) {
+				double value = Double.NaN;
+				if (meter instanceof Timer timer) {
+					value = timer.count();
+				} else if (meter instanceof Counter counter) {
+					value = counter.count();
+				} else if (meter instanceof LongTaskTimer longTaskTimer) {
+					value = longTaskTimer.activeTasks();
+				}
+				meters.put(meter.getId().getType() + " " + meter.getId().getName() + " " + meter.getId().getTags(), value);
+			}
+			return meters;
+		}
+
+		private void close() {
+			this.tracerProvider.close();
+			this.meterRegistry.close();
+		}
+	}
+
+	private static String event(EventData event) {
+		return event.getName() + " " + attributes(event.getAttributes());
+	}
+
+	/**
+	 * @return attributes sorted by key, stack traces reduced to their first line (an "error" key value creates the exception in the handler)
+	 */
+	private static Map<String, String> attributes(Attributes attributes) {
+		Map<String, String> sortedAttributes = new TreeMap<>();
+		attributes.forEach((key, value) -> sortedAttributes.put(key.getKey(),
+				STACKTRACE_KEY.equals(key.getKey()) ? String.valueOf(value).lines().findFirst().orElse("") : String.valueOf(value)));
+		return sortedAttributes;
+	}
+}
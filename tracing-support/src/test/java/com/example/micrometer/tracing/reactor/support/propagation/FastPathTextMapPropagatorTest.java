@@ -0,0 +1,82 @@
+package com.example.micrometer.tracing.reactor.support.propagation;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties.Propagation.PropagationType.B3;
+import static org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties.Propagation.PropagationType.W3C;
+
+class FastPathTextMapPropagatorTest {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+	private static final String SPAN_ID = "b7ad6b7169203331";
+
+	private static final TextMapGetter<Map<String, String>> GETTER = new TextMapGetter<>() {
+
+		@Override
+		public Iterable<String> keys(Map<String, String> carrier) {
+			return carrier.keySet();
+		}
+
+		@Override
+		public String get(Map<String, String> carrier, String key) {
+			return carrier == null ? null : carrier.get(key);
+		}
+	};
+
+	private final FastPathTextMapPropagator propagator = FastPathTextMapPropagator.create(List.of(W3C, B3), List.of(W3C), W3CBaggagePropagator.getInstance());
+
+	@Test
+	void injectsTraceFlags() {
+		for (TraceFlags traceFlags : List.of(TraceFlags.getSampled(), TraceFlags.getDefault(), TraceFlags.fromByte((byte) 0x03))) {
+			Map<String, String> carrier = new HashMap<>();
+			SpanContext spanContext = SpanContext.create(TRACE_ID, SPAN_ID, traceFlags, TraceState.getDefault());
+
+			this.propagator.inject(Context.root().with(Span.wrap(spanContext)), carrier, Map::put);
+
+			assertThat(carrier).containsEntry("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-" + traceFlags.asHex());
+		}
+	}
+
+	@Test
+	void extractsFirstConsumedFormat() {
+		Map<String, String> carrier = Map.of(
+				"traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01",
+				"b3", "4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-1");
+
+		SpanContext spanContext = Span.fromContext(this.propagator.extract(Context.root(), carrier, GETTER)).getSpanContext();
+
+		assertThat(spanContext.getTraceId()).isEqualTo(TRACE_ID);
+		assertThat(spanContext.isRemote()).isTrue();
+	}
+
+	@Test
+	void fallsThroughInvalidHeader() {
+		Map<String, String> carrier = Map.of(
+				"traceparent", "00-invalid",
+				"b3", "4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-1");
+
+		SpanContext spanContext = Span.fromContext(this.propagator.extract(Context.root(), carrier, GETTER)).getSpanContext();
+
+		assertThat(spanContext.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+		assertThat(spanContext.getSpanId()).isEqualTo("00f067aa0ba902b7");
+	}
+
+	@Test
+	void invalidHeaderOnly() {
+		Map<String, String> carrier = Map.of("traceparent", "00-invalid");
+
+		assertThat(Span.fromContext(this.propagator.extract(Context.root(), carrier, GETTER)).getSpanContext().isValid()).isFalse();
+	}
+}
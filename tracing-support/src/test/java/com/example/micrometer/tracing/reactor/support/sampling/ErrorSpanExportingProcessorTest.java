@@ -0,0 +1,48 @@
+package com.example.micrometer.tracing.reactor.support.sampling;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ErrorSpanExportingProcessorTest {
+
+	private static final AttributeKey<String> STATUS_ATTRIBUTE = AttributeKey.stringKey("status");
+
+	@Test
+	void httpSpansDecidedOnStatusWithoutSpanData() {
+		for (String status : new String[]{"200", "404", "500", "503", "CLIENT_ERROR"}) {
+			ReadableSpan span = mock(ReadableSpan.class);
+			when(span.getAttribute(any())).thenReturn(null);
+			when(span.getAttribute(STATUS_ATTRIBUTE)).thenReturn(status);
+
+			assertThat(ErrorSpanExportingProcessor.isError(span))
+					.as(status)
+					.isEqualTo(status.startsWith("5") || status.equals("CLIENT_ERROR"));
+			verify(span, never()).toSpanData();
+		}
+	}
+
+	@Test
+	void spansWithoutStatusDecidedOnStatusCode() {
+		assertThat(ErrorSpanExportingProcessor.isError(spanWithoutStatus(StatusCode.ERROR))).isTrue();
+		assertThat(ErrorSpanExportingProcessor.isError(spanWithoutStatus(StatusCode.UNSET))).isFalse();
+	}
+
+	private static ReadableSpan spanWithoutStatus(StatusCode statusCode) {
+		SpanData spanData = mock(SpanData.class);
+		when(spanData.getStatus()).thenReturn(StatusData.create(statusCode, null));
+		ReadableSpan span = mock(ReadableSpan.class);
+		when(span.toSpanData()).thenReturn(spanData);
+		return span;
+	}
+}
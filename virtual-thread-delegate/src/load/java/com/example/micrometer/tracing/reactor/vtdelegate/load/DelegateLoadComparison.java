@@ -0,0 +1,247 @@
+package com.example.micrometer.tracing.reactor.vtdelegate.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load comparison of GET /delegate/v2/calculator/square on reactive-delegate (WebFlux) and virtual-thread-delegate (Spring MVC),
+ * tracing on (every request sampled, spans are not exported) and off (management.tracing.enabled=false).
+ * <br/>
+ * Each configuration runs in a new JVM (same heap size), is warmed up, then loaded by a fixed number of concurrent clients (closed model).
+ * Results : throughput, p50/p99 latency, bytes allocated per request (jvm.gc.memory.allocated) and heap used per in-flight request
+ * (peak heap used under load minus heap used before load, divided by concurrency : approximate, depends on GC timing).
+ * <br/>
+ * System properties : delegate jars and Java executables (set by Gradle task compareDelegates), load.concurrency, load.warmup, load.duration
+ */
+public class DelegateLoadComparison {
+
+	private static final int PORT = 11099;
+	private static final String BASE_URL = "http://localhost:" + PORT;
+	private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)");
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	private final int concurrency = Integer.getInteger("load.concurrency", 64);
+	private final Duration warmup = Duration.parse("PT" + System.getProperty("load.warmup", "15s"));
+	private final Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+
+	public static void main(String[] args) throws Exception {
+		DelegateLoadComparison comparison = new DelegateLoadComparison();
+		List<Result> results = new ArrayList<>();
+		for (Delegate delegate : List.of(
+				new Delegate("reactive-delegate", System.getProperty("reactiveDelegate.java"), System.getProperty("reactiveDelegate.jar")),
+				new Delegate("virtual-thread-delegate", System.getProperty("virtualThreadDelegate.java"), System.getProperty("virtualThreadDelegate.jar")))) {
+			for (boolean tracing : List.of(true, false)) {
+				results.add(comparison.run(delegate, tracing));
+			}
+		}
+
+		String report = report(results, comparison.concurrency, comparison.duration);
+		System.out.println(report);
+		String reportFile = System.getProperty("load.report");
+		if (reportFile != null) {
+			Files.createDirectories(Path.of(reportFile).getParent());
+			Files.writeString(Path.of(reportFile), report);
+		}
+	}
+
+	private Result run(Delegate delegate, boolean tracing) throws Exception {
+		System.out.printf("%s, tracing %s : starting%n", delegate.name(), tracing ? "on" : "off");
+		Process process = start(delegate, tracing);
+		try {
+			awaitHealthy(process);
+			load(this.warmup);
+			double heapBefore = metric("jvm.memory.used?tag=area:heap");
+			double allocatedBefore = metric("jvm.gc.memory.allocated");
+
+			AtomicLong peakHeap = new AtomicLong(Double.doubleToLongBits(heapBefore));
+			Thread heapSampler = Thread.ofVirtual().start(() -> sampleHeap(peakHeap));
+			long[] latencies;
+			try {
+				latencies = load(this.duration);
+			} finally {
+				heapSampler.interrupt();
+			}
+			double allocated = metric("jvm.gc.memory.allocated") - allocatedBefore;
+
+			Arrays.sort(latencies);
+			return new Result(delegate.name(), tracing,
+					latencies.length / (double) this.duration.toSeconds(),
+					percentileMicros(latencies, 0.50),
+					percentileMicros(latencies, 0.99),
+					allocated / latencies.length,
+					Math.max(0, Double.longBitsToDouble(peakHeap.get()) - heapBefore) / this.concurrency);
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	private Process start(Delegate delegate, boolean tracing) throws IOException {
+		List<String> command = new ArrayList<>(List.of(delegate.java(), "-Xms512m", "-Xmx512m", "-jar", delegate.jar(),
+				"--server.port=" + PORT,
+				// Request logs would dominate response time
+				"--logging.level.root=warn",
+				"--management.endpoints.web.exposure.include=health,metrics",
+				"--management.otlp.tracing.export.enabled=false",
+				// RSocket server of reactive-delegate on a random port (no conflict with a running instance)
+				"--spring.rsocket.server.port=0"));
+		if (tracing) {
+			command.add("--tracing.sampling.enabled=false");
+			command.add("--management.tracing.sampling.probability=1.0");
+		} else {
+			command.add("--management.tracing.enabled=false");
+		}
+		return new ProcessBuilder(command)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.redirectError(ProcessBuilder.Redirect.INHERIT)
+				.start();
+	}
+
+	private void awaitHealthy(Process process) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Delegate exited with code " + process.exitValue());
+			}
+			try {
+				if (get("/actuator/health").statusCode() == 200) {
+					return;
+				}
+			} catch (IOException e) {
+				// Not started yet
+			}
+			Thread.sleep(500);
+		}
+		throw new IllegalStateException("Delegate not healthy after 2 minutes");
+	}
+
+	/**
+	 * @return latency of each request, in nanoseconds
+	 */
+	private long[] load(Duration loadDuration) throws Exception {
+		long endNanos = System.nanoTime() + loadDuration.toNanos();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<long[]>> clientLatencies = new ArrayList<>();
+			for (int i = 0; i < this.concurrency; i++) {
+				clientLatencies.add(clients.submit(() -> {
+					LongList latencies = new LongList();
+					while (System.nanoTime() < endNanos) {
+						long startNanos = System.nanoTime();
+						HttpResponse<String> response = get("/delegate/v2/calculator/square?value=2");
+						if (response.statusCode() != 200) {
+							throw new IllegalStateException("Unexpected response " + response.statusCode() + " : " + response.body());
+						}
+						latencies.add(System.nanoTime() - startNanos);
+					}
+					return latencies.toArray();
+				}));
+			}
+
+			LongList latencies = new LongList();
+			for (Future<long[]> clientLatency : clientLatencies) {
+				for (long latency : clientLatency.get()) {
+					latencies.add(latency);
+				}
+			}
+			return latencies.toArray();
+		}
+	}
+
+	private void sampleHeap(AtomicLong peakHeap) {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				double heap = metric("jvm.memory.used?tag=area:heap");
+				peakHeap.accumulateAndGet(Double.doubleToLongBits(heap),
+						(peak, sample) -> Double.longBitsToDouble(sample) > Double.longBitsToDouble(peak) ? sample : peak);
+				Thread.sleep(100);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private double metric(String nameAndTags) throws IOException, InterruptedException {
+		String body = get("/actuator/metrics/" + nameAndTags).body();
+		Matcher matcher = METRIC_VALUE.matcher(body);
+		if (!matcher.find()) {
+			throw new IllegalStateException("No value for metric " + nameAndTags + " : " + body);
+		}
+		return Double.parseDouble(matcher.group(1));
+	}
+
+	private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+		return this.httpClient.send(HttpRequest.newBuilder(URI.create(BASE_URL + path)).GET().build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static double percentileMicros(long[] sortedLatencies, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+		return sortedLatencies[Math.max(0, index)] / 1_000.0;
+	}
+
+	private static String report(List<Result> results, int concurrency, Duration duration) {
+		StringBuilder report = new StringBuilder()
+				.append("Concurrency = ").append(concurrency).append(", duration = ").append(duration.toSeconds()).append("s\n\n")
+				.append("| Delegate                | Tracing | Requests/s | p50 (us) | p99 (us) | Allocated/request (KB) | Heap/in-flight request (KB) |\n")
+				.append("|-------------------------|---------|------------|----------|----------|------------------------|-----------------------------|\n");
+		for (Result result : results) {
+			report.append(String.format(Locale.ROOT, "| %-23s | %-7s | %10.0f | %8.0f | %8.0f | %22.1f | %27.1f |%n",
+					result.delegate(), result.tracing() ? "on" : "off", result.throughput(), result.p50Micros(), result.p99Micros(),
+					result.allocatedBytesPerRequest() / 1024, result.heapBytesPerInFlightRequest() / 1024));
+		}
+		return report.toString();
+	}
+
+	private record Delegate(String name, String java, String jar) {
+	}
+
+	private record Result(String delegate,
+						  boolean tracing,
+						  double throughput,
+						  double p50Micros,
+						  double p99Micros,
+						  double allocatedBytesPerRequest,
+						  double heapBytesPerInFlightRequest) {
+	}
+
+	/**
+	 * Growable array of primitive longs (no boxing of latencies)
+	 */
+	private static final class LongList {
+
+		private long[] values = new long[1024];
+		private int size;
+
+		void add(long value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		long[] toArray() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+}
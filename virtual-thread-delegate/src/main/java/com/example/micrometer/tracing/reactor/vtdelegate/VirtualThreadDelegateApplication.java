@@ -0,0 +1,11 @@
+package com.example.micrometer.tracing.reactor.vtdelegate;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class VirtualThreadDelegateApplication {
+	public static void main(String[] args) {
+		SpringApplication.run(VirtualThreadDelegateApplication.class, args);
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.micrometer.tracing.reactor.vtdelegate.controller;
+
+import com.example.micrometer.tracing.reactor.support.logging.BaggageView;
+import com.example.micrometer.tracing.reactor.support.sampling.SampledObservation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Objects;
+
+/**
+ * Blocking equivalent of reactive-delegate DelegateCalculatorControllerV2.getSquare, a virtual thread per request
+ * (spring.threads.virtual.enabled).
+ * <br/>
+ * Same observation as .name("getSquare-method").tap(SampledObservation.observation(...)) : name, contextual name,
+ * key values (reactor.type, reactor.status included) and sampling rule, so that spans and meters of both delegates are comparable.
+ * Current observation and baggage are ThreadLocals of the request thread.
+ */
+@RestController
+@RequestMapping("delegate/v2/calculator")
+@Slf4j
+public class BlockingDelegateCalculatorController {
+
+	private static final String OBSERVATION_NAME = "getSquare-method";
+	// Key values of Reactor Micrometer.observation(...)
+	private static final String REACTOR_TYPE = "reactor.type";
+	private static final String REACTOR_STATUS = "reactor.status";
+
+	private final ObservationRegistry observationRegistry;
+
+	public BlockingDelegateCalculatorController(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+	}
+
+	@GetMapping(path = "/square")
+	public ResponseEntity<Double> getSquare(@RequestParam(value = "value") Double value) {
+		Observation observation = SampledObservation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+				.contextualName(OBSERVATION_NAME)
+				.lowCardinalityKeyValue(REACTOR_TYPE, "Mono")
+				.start();
+		try (Observation.Scope scope = observation.openScope()) {
+			log.info("Calculating value {}", value);
+			if (log.isDebugEnabled()) {
+				log.debug("Current Baggage = {}", BaggageView.lazy());
+			}
+			if (Objects.isNull(value)) {
+				throw new IllegalStateException("Incorrect value");
+			}
+
+			Double squareValue = computeSquare(value);
+			observation
+					.highCardinalityKeyValue("value.received.from.front", String.valueOf(value))
+					.highCardinalityKeyValue("value.sent.to.front", String.valueOf(squareValue))
+					.lowCardinalityKeyValue(REACTOR_STATUS, "completed");
+			log.info("Respond result = {} to front", squareValue);
+			return ResponseEntity.ok(squareValue);
+		} catch (RuntimeException e) {
+			observation.lowCardinalityKeyValue(REACTOR_STATUS, "error").error(e);
+			throw e;
+		} finally {
+			observation.stop();
+		}
+	}
+
+	private Double computeSquare(Double value) {
+		return value * value;
+	}
+}